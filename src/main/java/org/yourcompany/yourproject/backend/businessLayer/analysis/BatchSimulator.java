@@ -0,0 +1,234 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs many stimulus vectors through one circuit.
+ *
+ * Input ports and output gates are resolved by name once, when the batch is
+ * created; vectors are then plain boolean arrays in that order. Vectors are
+ * evaluated 64 at a time on a {@link BitParallelSimulator}, compiled to
+ * bytecode when {@link BytecodeCompiler} supports the circuit, and results are
+ * written into buffers owned by the batch, so a run does not allocate per
+ * vector. Unlike {@link CircuitLogicSimulator#run}, nothing is written back to
+ * the gates. Create a new batch after editing the circuit.
+ */
+public class BatchSimulator {
+
+    /**
+     * Supplies stimulus vectors, one call per vector
+     */
+    @FunctionalInterface
+    public interface StimulusSource {
+        /**
+         * Fill {@code inputs} with the next vector
+         *
+         * @return false when there are no more vectors
+         */
+        boolean next(boolean[] inputs);
+    }
+
+    /**
+     * Receives the outputs of each vector. The array is reused for the next
+     * vector, so copy it to keep it.
+     */
+    @FunctionalInterface
+    public interface ResponseSink {
+        void accept(long vector, boolean[] outputs);
+    }
+
+    private final CompiledCircuit netlist;
+    private final BitParallelSimulator simulator;
+    private final List<String> inputNames;
+    private final List<String> outputNames;
+    private final int[] inputIndex;
+    private final int[] outputSignal;
+    private SimulationControl control;
+
+    // Reusable buffers for one block of 64 vectors
+    private final long[] inputLanes;
+    private final long[] outputLanes;
+    private final boolean[][] blockInputs;
+    private final boolean[] outputVector;
+
+    /**
+     * @param inputNames  circuit inputs in vector order, named gate + "_in" +
+     *                    port as in {@link CircuitLogicSimulator#run}; inputs
+     *                    not listed are held low
+     * @param outputNames gates whose output 0 is reported, in result order
+     */
+    public BatchSimulator(CompiledCircuit netlist, List<String> inputNames, List<String> outputNames) {
+        this(netlist, inputNames, outputNames, resolveOutputs(netlist, outputNames));
+    }
+
+    /**
+     * Batch over a flattened circuit, so subcircuits run as inlined gates
+     * rather than through their components
+     *
+     * @param outputNames top-level gates whose output 0 is reported, in result
+     *                    order
+     */
+    public BatchSimulator(FlattenedCircuit flat, List<String> inputNames, List<String> outputNames) {
+        this(flat.getNetlist(), inputNames, outputNames, resolveOutputs(flat, outputNames));
+    }
+
+    private BatchSimulator(CompiledCircuit netlist, List<String> inputNames, List<String> outputNames,
+            int[] outputSignal) {
+        this.netlist = netlist;
+        // Plain gate circuits run as generated bytecode, the rest on the netlist
+        this.simulator = BytecodeCompiler.isSupported(netlist) ? new BytecodeSimulator(netlist)
+                : new BitParallelSimulator(netlist);
+        this.inputNames = Collections.unmodifiableList(new ArrayList<>(inputNames));
+        this.outputNames = Collections.unmodifiableList(new ArrayList<>(outputNames));
+        this.inputIndex = resolveInputs(netlist, inputNames);
+        this.outputSignal = outputSignal;
+
+        this.inputLanes = new long[inputIndex.length];
+        this.outputLanes = new long[outputSignal.length];
+        this.blockInputs = new boolean[BitParallelSimulator.LANES][inputIndex.length];
+        this.outputVector = new boolean[outputSignal.length];
+    }
+
+    // ===== PORT RESOLUTION =====
+
+    private static int[] resolveInputs(CompiledCircuit netlist, List<String> names) {
+        int[] indices = new int[names.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = -1;
+            for (int input = 0; input < netlist.getInputCount(); input++) {
+                if (netlist.getInputName(input).equals(names.get(i))) {
+                    indices[i] = input;
+                    break;
+                }
+            }
+            if (indices[i] == -1) {
+                throw new IllegalArgumentException("Not a circuit input: " + names.get(i));
+            }
+        }
+        return indices;
+    }
+
+    private static int[] resolveOutputs(CompiledCircuit netlist, List<String> names) {
+        int[] signals = new int[names.size()];
+        for (int i = 0; i < signals.length; i++) {
+            signals[i] = -1;
+            // Last gate with the name wins, as in the map returned by run()
+            for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+                if (netlist.getGate(gate).getName().equals(names.get(i)) && netlist.getOutputCount(gate) > 0) {
+                    signals[i] = netlist.getOutputSignal(gate, 0);
+                }
+            }
+            if (signals[i] == -1) {
+                throw new IllegalArgumentException("No gate output named: " + names.get(i));
+            }
+        }
+        return signals;
+    }
+
+    private static int[] resolveOutputs(FlattenedCircuit flat, List<String> names) {
+        int[] signals = new int[names.size()];
+        for (int i = 0; i < signals.length; i++) {
+            // Only top-level gates, so inner gates of the same name are not picked
+            signals[i] = flat.getOutputSignal(names.get(i));
+            if (signals[i] == -1) {
+                throw new IllegalArgumentException("No gate output named: " + names.get(i));
+            }
+        }
+        return signals;
+    }
+
+    public CompiledCircuit getNetlist() {
+        return netlist;
+    }
+
+    public List<String> getInputNames() {
+        return inputNames;
+    }
+
+    public List<String> getOutputNames() {
+        return outputNames;
+    }
+
+    /**
+     * Bound every block by a control, so a cancelled or overdue batch stops
+     * within one pass. Without a control, cyclic circuits stop after
+     * {@link CompiledCircuitSimulator#MAX_PASSES} passes.
+     */
+    public void setControl(SimulationControl control) {
+        this.control = control;
+    }
+
+    // ===== EVALUATION =====
+
+    /**
+     * Evaluate 64 vectors at once. Bit k of {@code inputLanes[i]} is input i of
+     * vector k; bit k of {@code outputLanes[j]} receives output j of vector k.
+     * Lanes that oscillate keep the state at which oscillation was detected.
+     *
+     * @throws NonConvergenceException if the control cancelled the block or its
+     *                                 deadline passed
+     */
+    public void evaluateBlock(long[] inputLanes, long[] outputLanes) {
+        if (netlist.isCyclic()) {
+            // Every vector starts from a cleared circuit, as a fresh run would
+            simulator.reset();
+        }
+        for (int i = 0; i < inputIndex.length; i++) {
+            simulator.setInputWord(inputIndex[i], inputLanes[i]);
+        }
+        if (control == null) {
+            simulator.evaluate();
+        } else {
+            ConvergenceReport report = simulator.evaluate(control);
+            if (report.isAborted()) {
+                throw new NonConvergenceException(report);
+            }
+        }
+        for (int j = 0; j < outputSignal.length; j++) {
+            outputLanes[j] = simulator.getWord(outputSignal[j]);
+        }
+    }
+
+    /**
+     * Evaluate every vector from the source, passing each result to the sink
+     *
+     * @return the number of vectors evaluated
+     */
+    public long run(StimulusSource source, ResponseSink sink) {
+        long vector = 0;
+        boolean more = true;
+        while (more) {
+            int lanes = 0;
+            while (lanes < BitParallelSimulator.LANES && (more = source.next(blockInputs[lanes]))) {
+                lanes++;
+            }
+            if (lanes == 0) {
+                break;
+            }
+
+            packBlock(lanes);
+            evaluateBlock(inputLanes, outputLanes);
+            for (int lane = 0; lane < lanes; lane++) {
+                for (int j = 0; j < outputLanes.length; j++) {
+                    outputVector[j] = ((outputLanes[j] >>> lane) & 1L) != 0;
+                }
+                sink.accept(vector++, outputVector);
+            }
+        }
+        return vector;
+    }
+
+    private void packBlock(int lanes) {
+        for (int i = 0; i < inputLanes.length; i++) {
+            long word = 0L;
+            for (int lane = 0; lane < lanes; lane++) {
+                if (blockInputs[lane][i]) {
+                    word |= 1L << lane;
+                }
+            }
+            inputLanes[i] = word;
+        }
+    }
+}
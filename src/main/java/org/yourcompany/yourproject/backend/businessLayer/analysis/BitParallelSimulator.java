@@ -0,0 +1,240 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.Arrays;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+
+/**
+ * Evaluates a {@link CompiledCircuit} on 64 input patterns at once.
+ *
+ * Each signal is a long whose bit k is the value of that signal in pattern
+ * (lane) k, so AND, OR and NOT are single word operations over all lanes.
+ */
+public class BitParallelSimulator {
+
+    public static final int LANES = 64;
+
+    // Lane patterns of the first six inputs when enumerating all combinations
+    private static final long[] LANE_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL,
+            0xCCCCCCCCCCCCCCCCL,
+            0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L,
+            0xFFFF0000FFFF0000L,
+            0xFFFFFFFF00000000L
+    };
+
+    protected final CompiledCircuit netlist;
+    protected final long[] words;
+
+    public BitParallelSimulator(CompiledCircuit netlist) {
+        this.netlist = netlist;
+        this.words = new long[netlist.getSignalCount()];
+    }
+
+    // ===== INPUT AND OUTPUT ACCESS =====
+
+    public CompiledCircuit getNetlist() {
+        return netlist;
+    }
+
+    public void setInputWord(int input, long lanes) {
+        words[input] = lanes;
+    }
+
+    public long getWord(int signal) {
+        return words[signal];
+    }
+
+    public long getOutputWord(int gate, int port) {
+        return words[netlist.getOutputSignal(gate, port)];
+    }
+
+    public void reset() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * Lanes of an input when enumerating every combination: in block b, lane k
+     * holds combination {@code b * 64 + k}, whose bit {@code input} is the
+     * input value
+     */
+    public static long exhaustivePattern(int input, long block) {
+        if (input < LANE_PATTERNS.length) {
+            return LANE_PATTERNS[input];
+        }
+        return ((block >>> (input - LANE_PATTERNS.length)) & 1L) != 0 ? -1L : 0L;
+    }
+
+    // ===== EVALUATION =====
+
+    /**
+     * Settle all 64 lanes for the current input words.
+     *
+     * @return the number of passes over the evaluation order
+     */
+    public int evaluate() {
+        int[] order = netlist.getOrder();
+        if (!netlist.isCyclic()) {
+            for (int gate : order) {
+                evaluateGate(gate);
+            }
+            return 1;
+        }
+
+        int passes = 0;
+        boolean changed;
+        do {
+            changed = evaluatePass();
+            passes++;
+        } while (changed && passes < CompiledCircuitSimulator.MAX_PASSES);
+        return passes;
+    }
+
+    /**
+     * Settle all 64 lanes under the limits of a control. A lane that
+     * oscillates makes the whole word repeat, and the nets that toggle in any
+     * lane are reported.
+     */
+    public ConvergenceReport evaluate(SimulationControl control) {
+        if (!netlist.isCyclic()) {
+            ConvergenceReport.Status stop = control.check();
+            if (stop != null) {
+                return ConvergenceReport.stopped(netlist, stop, 0);
+            }
+            return ConvergenceReport.settled(netlist, evaluate());
+        }
+
+        CycleDetector detector = new CycleDetector(CycleDetector.hash(words));
+        int passes = 0;
+        while (true) {
+            ConvergenceReport.Status stop = control.check();
+            if (stop != null) {
+                return ConvergenceReport.stopped(netlist, stop, passes);
+            }
+            boolean changed = evaluatePass();
+            passes++;
+            if (!changed) {
+                return ConvergenceReport.settled(netlist, passes);
+            }
+            if (passes >= control.getPassLimit()) {
+                return ConvergenceReport.stopped(netlist, ConvergenceReport.Status.PASS_LIMIT, passes);
+            }
+
+            int period = detector.next(CycleDetector.hash(words));
+            if (period > 0) {
+                int[] oscillating = replayCycle(period);
+                passes += period;
+                if (oscillating != null) {
+                    return new ConvergenceReport(netlist, ConvergenceReport.Status.OSCILLATING, passes, period,
+                            oscillating);
+                }
+            }
+        }
+    }
+
+    private boolean evaluatePass() {
+        boolean changed = false;
+        for (int gate : netlist.getOrder()) {
+            changed |= evaluateGate(gate);
+        }
+        return changed;
+    }
+
+    /**
+     * Run one candidate period and check that every word comes back
+     *
+     * @return the signals that changed on the way, or null on a hash collision
+     */
+    private int[] replayCycle(int period) {
+        long[] start = words.clone();
+        boolean[] moved = new boolean[words.length];
+        for (int pass = 0; pass < period; pass++) {
+            evaluatePass();
+            for (int signal = 0; signal < words.length; signal++) {
+                moved[signal] |= words[signal] != start[signal];
+            }
+        }
+        if (!Arrays.equals(words, start)) {
+            return null;
+        }
+        int count = 0;
+        for (boolean changed : moved) {
+            if (changed) {
+                count++;
+            }
+        }
+        int[] oscillating = new int[count];
+        count = 0;
+        for (int signal = 0; signal < moved.length; signal++) {
+            if (moved[signal]) {
+                oscillating[count++] = signal;
+            }
+        }
+        return oscillating;
+    }
+
+    boolean evaluateGate(int gate) {
+        int start = netlist.getFaninStart(gate);
+        int end = netlist.getFaninEnd(gate);
+
+        switch (netlist.getKind(gate)) {
+            case CompiledCircuit.KIND_AND: {
+                long value = -1L;
+                for (int i = start; i < end; i++) {
+                    value &= words[netlist.getFaninSignal(i)];
+                }
+                return store(netlist.getOutputSignal(gate, 0), value);
+            }
+            case CompiledCircuit.KIND_OR: {
+                long value = 0L;
+                for (int i = start; i < end; i++) {
+                    value |= words[netlist.getFaninSignal(i)];
+                }
+                return store(netlist.getOutputSignal(gate, 0), value);
+            }
+            case CompiledCircuit.KIND_NOT:
+                return store(netlist.getOutputSignal(gate, 0),
+                        start == end ? -1L : ~words[netlist.getFaninSignal(start)]);
+            case CompiledCircuit.KIND_LED:
+                return false;
+            default:
+                return evaluateOpaque(gate, start, end);
+        }
+    }
+
+    private boolean store(int signal, long value) {
+        if (words[signal] == value) {
+            return false;
+        }
+        words[signal] = value;
+        return true;
+    }
+
+    /**
+     * Gates without a compiled kind are run through the model once per lane
+     */
+    private boolean evaluateOpaque(int gate, int start, int end) {
+        GateComponent component = netlist.getGate(gate);
+        int outputs = netlist.getOutputCount(gate);
+        long[] result = new long[outputs];
+
+        for (int lane = 0; lane < LANES; lane++) {
+            for (int i = start; i < end; i++) {
+                component.assignInputBit(i - start, ((words[netlist.getFaninSignal(i)] >>> lane) & 1L) != 0);
+            }
+            component.evaluateInPlace();
+            for (int port = 0; port < outputs; port++) {
+                if (component.getOutputBit(port)) {
+                    result[port] |= 1L << lane;
+                }
+            }
+        }
+
+        boolean changed = false;
+        for (int port = 0; port < outputs; port++) {
+            changed |= store(netlist.getOutputSignal(gate, port), result[port]);
+        }
+        return changed;
+    }
+}
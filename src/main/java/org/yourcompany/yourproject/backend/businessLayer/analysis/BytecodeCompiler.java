@@ -0,0 +1,347 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Turns a {@link CompiledCircuit} into JVM bytecode.
+ *
+ * The generated class has one straight-line method that evaluates the gates
+ * in topological order on long locals, 64 lanes at a time, over the same word
+ * layout as {@link BitParallelSimulator}. No gate objects and no virtual calls
+ * are involved, so the JIT can keep the whole circuit in registers.
+ *
+ * Classes are defined as hidden classes that are not strongly tied to their
+ * class loader: once the netlist they were built for is dropped (the circuit
+ * changed and was recompiled) the kernel and its class can be unloaded.
+ * Cyclic circuits and subcircuit gates are not supported; they stay on the
+ * interpreted simulators.
+ */
+public final class BytecodeCompiler {
+
+    /**
+     * Evaluates a whole circuit: reads the input words and writes every gate
+     * output word
+     */
+    public interface Kernel {
+        void evaluate(long[] words);
+    }
+
+    // Each long local takes two slots, and the method has 65535 at most
+    public static final int MAX_SIGNALS = 32000;
+    private static final int MAX_CODE_LENGTH = 65535;
+
+    private static final String CLASS_NAME = "org/yourcompany/yourproject/backend/businessLayer/analysis/CircuitKernel";
+    private static final String KERNEL_NAME = Kernel.class.getName().replace('.', '/');
+
+    // Kernels of recently compiled netlists; held weakly so they unload with them
+    private static final Map<CompiledCircuit, Kernel> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private BytecodeCompiler() {
+    }
+
+    // ===== COMPILATION =====
+
+    /**
+     * Kernel for a netlist, compiled on first use
+     *
+     * @throws IllegalArgumentException if the netlist is not supported
+     */
+    public static Kernel of(CompiledCircuit netlist) {
+        Kernel kernel = CACHE.get(netlist);
+        if (kernel == null) {
+            kernel = compile(netlist);
+            CACHE.put(netlist, kernel);
+        }
+        return kernel;
+    }
+
+    /**
+     * True if the netlist is acyclic, has only AND, OR, NOT and LED gates, and
+     * surely fits in one method. The size is bounded from the gate and fan-in
+     * counts rather than by generating the code, so a circuit just under the
+     * limit may be turned down although {@link #compile} would accept it.
+     */
+    public static boolean isSupported(CompiledCircuit netlist) {
+        return hasSupportedStructure(netlist) && maxCodeLength(netlist) <= MAX_CODE_LENGTH;
+    }
+
+    /**
+     * Upper bound on the length of {@link #generateCode}: every local access
+     * in its wide form and every index pushed with sipush
+     */
+    static long maxCodeLength(CompiledCircuit netlist) {
+        int gates = netlist.getGateCount();
+        long fanin = netlist.getFaninStart(gates);
+        // Load or store of a signal word: aload, sipush, laload/lastore, wide lload/lstore
+        long perSignal = 1 + 3 + 1 + 4;
+        // Per gate: a constant or inverter mask (3) and the wide lstore of its output (4)
+        long perGate = 3 + 4;
+        // Per fan-in: wide lload and the combining operator
+        long perFanin = 4 + 1;
+        return perSignal * netlist.getSignalCount() + perGate * gates + perFanin * fanin + 1;
+    }
+
+    private static boolean hasSupportedStructure(CompiledCircuit netlist) {
+        if (netlist.isCyclic() || netlist.getSignalCount() > MAX_SIGNALS) {
+            return false;
+        }
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            if (netlist.getKind(gate) == CompiledCircuit.KIND_OPAQUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate and load a new kernel class for a netlist
+     *
+     * @throws IllegalArgumentException if the netlist is not supported
+     */
+    public static Kernel compile(CompiledCircuit netlist) {
+        if (!hasSupportedStructure(netlist)) {
+            throw new IllegalArgumentException("Circuit cannot be compiled to bytecode: "
+                    + (netlist.isCyclic() ? "it has feedback loops" : "it has subcircuits or too many signals"));
+        }
+        byte[] code = generateCode(netlist);
+        if (code.length > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Circuit is too large for one method: " + code.length + " bytes");
+        }
+        byte[] classFile = generateClass(netlist, code);
+        try {
+            MethodHandles.Lookup hidden = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            return (Kernel) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not load generated circuit kernel", e);
+        }
+    }
+
+    // ===== CLASS FILE =====
+
+    // Constant pool indices of generateClass
+    private static final int CP_THIS_CLASS = 2;
+    private static final int CP_OBJECT_CLASS = 4;
+    private static final int CP_KERNEL_CLASS = 6;
+    private static final int CP_INIT_NAME = 7;
+    private static final int CP_VOID_DESCRIPTOR = 8;
+    private static final int CP_OBJECT_INIT = 10;
+    private static final int CP_CODE = 11;
+    private static final int CP_EVALUATE_NAME = 12;
+    private static final int CP_EVALUATE_DESCRIPTOR = 13;
+
+    static byte[] generateClass(CompiledCircuit netlist, byte[] code) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(code.length + 512);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(61); // Java 17
+
+            out.writeShort(14);
+            utf8(out, CLASS_NAME); // 1
+            classRef(out, 1); // 2
+            utf8(out, "java/lang/Object"); // 3
+            classRef(out, 3); // 4
+            utf8(out, KERNEL_NAME); // 5
+            classRef(out, 5); // 6
+            utf8(out, "<init>"); // 7
+            utf8(out, "()V"); // 8
+            out.writeByte(12); // 9: NameAndType <init>()V
+            out.writeShort(CP_INIT_NAME);
+            out.writeShort(CP_VOID_DESCRIPTOR);
+            out.writeByte(10); // 10: Methodref Object.<init>
+            out.writeShort(CP_OBJECT_CLASS);
+            out.writeShort(9);
+            utf8(out, "Code"); // 11
+            utf8(out, "evaluate"); // 12
+            utf8(out, "([J)V"); // 13
+
+            out.writeShort(0x0031); // public final super
+            out.writeShort(CP_THIS_CLASS);
+            out.writeShort(CP_OBJECT_CLASS);
+            out.writeShort(1);
+            out.writeShort(CP_KERNEL_CLASS);
+            out.writeShort(0); // fields
+
+            out.writeShort(2);
+            // public <init>() { super(); }
+            byte[] init = { 0x2a, (byte) 0xb7, 0, CP_OBJECT_INIT, (byte) 0xb1 };
+            method(out, CP_INIT_NAME, CP_VOID_DESCRIPTOR, 1, 1, init);
+            // public void evaluate(long[] words)
+            method(out, CP_EVALUATE_NAME, CP_EVALUATE_DESCRIPTOR, 4, 2 + 2 * netlist.getSignalCount(), code);
+
+            out.writeShort(0); // class attributes
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void utf8(DataOutputStream out, String value) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(value);
+    }
+
+    private static void classRef(DataOutputStream out, int nameIndex) throws IOException {
+        out.writeByte(7);
+        out.writeShort(nameIndex);
+    }
+
+    private static void method(DataOutputStream out, int name, int descriptor, int maxStack, int maxLocals,
+            byte[] code) throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(CP_CODE);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // code attributes
+    }
+
+    // ===== METHOD BODY =====
+
+    private static final int ALOAD_1 = 0x2b;
+    private static final int LCONST_0 = 0x09;
+    private static final int ICONST_M1 = 0x02;
+    private static final int I2L = 0x85;
+    private static final int LALOAD = 0x2f;
+    private static final int LASTORE = 0x50;
+    private static final int LAND = 0x7f;
+    private static final int LOR = 0x81;
+    private static final int LXOR = 0x83;
+    private static final int RETURN = 0xb1;
+
+    /**
+     * Body of evaluate: load the used inputs into locals, compute each gate
+     * into the locals of its outputs, then store every gate output word.
+     * Signal s lives in local 2 + 2s; slot 1 holds the word array.
+     */
+    static byte[] generateCode(CompiledCircuit netlist) {
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+        for (int input = 0; input < netlist.getInputCount(); input++) {
+            if (netlist.getFanoutStart(input) < netlist.getFanoutEnd(input)) {
+                code.write(ALOAD_1);
+                pushInt(code, input);
+                code.write(LALOAD);
+                localOp(code, 0x37, 0x3f, local(input));
+            }
+        }
+
+        for (int gate : netlist.getOrder()) {
+            if (netlist.getOutputCount(gate) == 0) {
+                continue;
+            }
+            int start = netlist.getFaninStart(gate);
+            int end = netlist.getFaninEnd(gate);
+
+            switch (netlist.getKind(gate)) {
+                case CompiledCircuit.KIND_AND:
+                    if (start == end) {
+                        pushAllOnes(code);
+                    }
+                    for (int i = start; i < end; i++) {
+                        loadSignal(code, netlist.getFaninSignal(i));
+                        if (i > start) {
+                            code.write(LAND);
+                        }
+                    }
+                    break;
+                case CompiledCircuit.KIND_OR:
+                    if (start == end) {
+                        code.write(LCONST_0);
+                    }
+                    for (int i = start; i < end; i++) {
+                        loadSignal(code, netlist.getFaninSignal(i));
+                        if (i > start) {
+                            code.write(LOR);
+                        }
+                    }
+                    break;
+                case CompiledCircuit.KIND_NOT:
+                    if (start == end) {
+                        pushAllOnes(code);
+                    } else {
+                        loadSignal(code, netlist.getFaninSignal(start));
+                        pushAllOnes(code);
+                        code.write(LXOR);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Gate kind has no bytecode form: " + netlist.getKind(gate));
+            }
+            localOp(code, 0x37, 0x3f, local(netlist.getOutputSignal(gate, 0)));
+        }
+
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            for (int port = 0; port < netlist.getOutputCount(gate); port++) {
+                int signal = netlist.getOutputSignal(gate, port);
+                code.write(ALOAD_1);
+                pushInt(code, signal);
+                loadSignal(code, signal);
+                code.write(LASTORE);
+            }
+        }
+
+        code.write(RETURN);
+        return code.toByteArray();
+    }
+
+    private static int local(int signal) {
+        return 2 + 2 * signal;
+    }
+
+    private static void loadSignal(ByteArrayOutputStream code, int signal) {
+        localOp(code, 0x16, 0x1e, local(signal));
+    }
+
+    private static void pushAllOnes(ByteArrayOutputStream code) {
+        code.write(ICONST_M1);
+        code.write(I2L);
+    }
+
+    /**
+     * lload or lstore, in the shortest form for the slot
+     */
+    private static void localOp(ByteArrayOutputStream code, int opcode, int shortForm, int slot) {
+        if (slot <= 3) {
+            code.write(shortForm + slot);
+        } else if (slot <= 0xFF) {
+            code.write(opcode);
+            code.write(slot);
+        } else {
+            code.write(0xc4); // wide
+            code.write(opcode);
+            code.write(slot >>> 8);
+            code.write(slot);
+        }
+    }
+
+    private static void pushInt(ByteArrayOutputStream code, int value) {
+        if (value <= 5) {
+            code.write(0x03 + value); // iconst_<n>
+        } else if (value <= Byte.MAX_VALUE) {
+            code.write(0x10); // bipush
+            code.write(value);
+        } else {
+            code.write(0x11); // sipush
+            code.write(value >>> 8);
+            code.write(value);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+/**
+ * {@link BitParallelSimulator} whose evaluation is a generated kernel from
+ * {@link BytecodeCompiler} instead of a walk over the netlist arrays
+ */
+public class BytecodeSimulator extends BitParallelSimulator {
+
+    private final BytecodeCompiler.Kernel kernel;
+
+    /**
+     * @throws IllegalArgumentException if the netlist cannot be compiled, see
+     *                                  {@link BytecodeCompiler#isSupported}
+     */
+    public BytecodeSimulator(CompiledCircuit netlist) {
+        super(netlist);
+        this.kernel = BytecodeCompiler.of(netlist);
+    }
+
+    /**
+     * Bytecode kernels only exist for acyclic circuits, so one call settles all
+     * 64 lanes
+     */
+    @Override
+    public int evaluate() {
+        kernel.evaluate(words);
+        return 1;
+    }
+}
@@ -1,6 +1,7 @@
 package org.yourcompany.yourproject.backend.businessLayer.analysis;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
@@ -24,12 +25,15 @@ public class CircuitLogicSimulator {
     // ===== SIGNAL PROPAGATION LOGIC =====
 
     private static void runSignalPropagation(Circuit circuit) {
+        // Bounded like the compiled engine so a ring oscillator cannot hang the run
         boolean changed;
+        int passes = 0;
         do {
             changed = false;
             changed |= evaluateAllGates(circuit);
             changed |= transferSignalsThroughWires(circuit);
-        } while (changed);
+            passes++;
+        } while (changed && passes < CompiledCircuitSimulator.MAX_PASSES);
     }
 
     private static boolean evaluateAllGates(Circuit circuit) {
@@ -47,11 +51,72 @@ public class CircuitLogicSimulator {
     // ===== MAIN PUBLIC INTERFACE =====
 
     public static Map<String, Boolean> run(Circuit circuit, Map<String, Boolean> externalInputs) {
+        // Subcircuits are inlined; wide levels of large circuits are spread over
+        // the common ForkJoin pool
+        FlattenedCircuit flat = FlattenedCircuit.of(circuit);
+        CompiledCircuitSimulator simulator = new ParallelLevelSimulator(flat.getNetlist());
+        compiledInputInitializer(simulator, externalInputs);
+        simulator.evaluate();
+        flat.writeBack(simulator);
+        return gatherGateOutputs(circuit);
+    }
+
+    /**
+     * Like {@link #run(Circuit, Map)}, but bounded by a control: the run stops
+     * when the circuit oscillates, is cancelled or passes its deadline.
+     *
+     * @throws NonConvergenceException if the circuit did not settle; its report
+     *                                 names the oscillating nets
+     */
+    public static Map<String, Boolean> run(Circuit circuit, Map<String, Boolean> externalInputs,
+            SimulationControl control) {
+        FlattenedCircuit flat = FlattenedCircuit.of(circuit);
+        CompiledCircuitSimulator simulator = new ParallelLevelSimulator(flat.getNetlist());
+        compiledInputInitializer(simulator, externalInputs);
+        ConvergenceReport report = simulator.evaluate(control);
+        if (!report.isSettled()) {
+            throw new NonConvergenceException(report);
+        }
+        flat.writeBack(simulator);
+        return gatherGateOutputs(circuit);
+    }
+
+    /**
+     * Batch entry point for regression runs: the named inputs and outputs are
+     * resolved once and vectors are evaluated 64 at a time. Subcircuits are
+     * inlined as in {@link #run(Circuit, Map)}.
+     */
+    public static BatchSimulator batch(Circuit circuit, List<String> inputNames, List<String> outputNames) {
+        return new BatchSimulator(FlattenedCircuit.of(circuit), inputNames, outputNames);
+    }
+
+    /**
+     * Entry point for repeated runs of one circuit: ports are resolved once
+     * into handles, and inputs and outputs are then plain arrays or bits
+     */
+    public static SimulationSession session(Circuit circuit) {
+        return SimulationSession.of(circuit);
+    }
+
+    /**
+     * Original sweep-until-stable engine, kept as a reference for the compiled
+     * path
+     */
+    public static Map<String, Boolean> runInterpreted(Circuit circuit, Map<String, Boolean> externalInputs) {
         circuitInputInitializer(circuit, externalInputs);
         runSignalPropagation(circuit);
         return gatherGateOutputs(circuit);
     }
 
+    private static void compiledInputInitializer(CompiledCircuitSimulator simulator,
+            Map<String, Boolean> externalInputs) {
+        CompiledCircuit netlist = simulator.getNetlist();
+        for (int i = 0; i < netlist.getInputCount(); i++) {
+            Boolean value = externalInputs.getOrDefault(netlist.getInputName(i), false);
+            simulator.setInput(i, value != null && value);
+        }
+    }
+
     private static boolean transferSignalsThroughWires(Circuit circuit) {
         boolean changed = false;
         for (Connector conn : circuit.getWires()) {
@@ -0,0 +1,467 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.Connector;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.LED;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+/**
+ * Flat, levelized netlist form of a {@link Circuit}.
+ *
+ * Every signal is an int index. Signals [0, inputCount) are the external input
+ * ports (gate inputs not driven from inside the circuit), the rest are gate
+ * output ports. Gates are stored by index with their kind, fan-in signal
+ * indices and output signal range, plus a topological evaluation order.
+ */
+public final class CompiledCircuit {
+
+    // ===== GATE KINDS =====
+
+    public static final byte KIND_AND = 0;
+    public static final byte KIND_OR = 1;
+    public static final byte KIND_NOT = 2;
+    public static final byte KIND_LED = 3;
+    // Anything else (subcircuits, unknown gates) is evaluated through the model
+    public static final byte KIND_OPAQUE = 4;
+
+    // Last compiled form of each circuit, reused while its structure is unchanged
+    private static final Map<Circuit, CompiledCircuit> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Weak, so the cache entry keyed by the circuit does not keep it alive
+    private final WeakReference<Circuit> source;
+    private final int structureVersion;
+    private final GateComponent[] gates;
+    private final Map<GateComponent, Integer> gateIndex;
+    private final byte[] kinds;
+
+    private final int[] faninStart;
+    private final int[] fanin;
+    private final int[] outputStart;
+    private final int[] fanoutStart;
+    private final int[] fanoutGates;
+
+    private final GateComponent[] inputGates;
+    private final int[] inputPorts;
+    private final int signalCount;
+
+    private final int[] order;
+    private final int[] levels;
+    private final int[] levelStart;
+    private final boolean cyclic;
+
+    private CompiledCircuit(Circuit source, int structureVersion, GateComponent[] gates, Map<GateComponent, Integer> gateIndex,
+            byte[] kinds, int[] faninStart, int[] fanin, int[] outputStart, int[] fanoutStart, int[] fanoutGates,
+            GateComponent[] inputGates, int[] inputPorts, int signalCount, int[] order, int[] levels,
+            int[] levelStart, boolean cyclic) {
+        this.source = new WeakReference<>(source);
+        this.structureVersion = structureVersion;
+        this.gates = gates;
+        this.gateIndex = gateIndex;
+        this.kinds = kinds;
+        this.faninStart = faninStart;
+        this.fanin = fanin;
+        this.outputStart = outputStart;
+        this.fanoutStart = fanoutStart;
+        this.fanoutGates = fanoutGates;
+        this.inputGates = inputGates;
+        this.inputPorts = inputPorts;
+        this.signalCount = signalCount;
+        this.order = order;
+        this.levels = levels;
+        this.levelStart = levelStart;
+        this.cyclic = cyclic;
+    }
+
+    // ===== COMPILATION =====
+
+    /**
+     * Compiled form of a circuit, compiled again only if gates or wires were
+     * added or removed since the last call
+     */
+    public static CompiledCircuit of(Circuit circuit) {
+        CompiledCircuit compiled = CACHE.get(circuit);
+        if (compiled == null || !compiled.isCurrent()) {
+            compiled = compile(circuit);
+            CACHE.put(circuit, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Compile the current structure of a circuit. The result is a snapshot: it
+     * must be recompiled after gates or wires are added or removed.
+     */
+    public static CompiledCircuit compile(Circuit circuit) {
+        List<GateComponent> gateList = circuit.getGates();
+        int gateCount = gateList.size();
+
+        GateComponent[] gates = gateList.toArray(new GateComponent[0]);
+        Map<GateComponent, Integer> gateIndex = new IdentityHashMap<>(gateCount * 2);
+        for (int g = 0; g < gateCount; g++) {
+            gateIndex.put(gates[g], g);
+        }
+
+        // External inputs first so their signal indices are stable and dense
+        List<GateComponent> inputGateList = new ArrayList<>();
+        List<Integer> inputPortList = new ArrayList<>();
+        int faninTotal = 0;
+        for (GateComponent gate : gates) {
+            for (int port = 0; port < gate.getInputs(); port++) {
+                if (internalDriver(gate, port, gateIndex) == null) {
+                    inputGateList.add(gate);
+                    inputPortList.add(port);
+                }
+            }
+            faninTotal += gate.getInputs();
+        }
+        int inputCount = inputGateList.size();
+
+        byte[] kinds = new byte[gateCount];
+        int[] outputStart = new int[gateCount + 1];
+        int nextSignal = inputCount;
+        for (int g = 0; g < gateCount; g++) {
+            kinds[g] = kindOf(gates[g]);
+            outputStart[g] = nextSignal;
+            nextSignal += gates[g].getOutputs();
+        }
+        outputStart[gateCount] = nextSignal;
+
+        int[] faninStart = new int[gateCount + 1];
+        int[] fanin = new int[faninTotal];
+        int nextExternal = 0;
+        int cursor = 0;
+        for (int g = 0; g < gateCount; g++) {
+            faninStart[g] = cursor;
+            GateComponent gate = gates[g];
+            for (int port = 0; port < gate.getInputs(); port++) {
+                Connector wire = internalDriver(gate, port, gateIndex);
+                if (wire == null) {
+                    fanin[cursor++] = nextExternal++;
+                } else {
+                    int from = gateIndex.get(wire.getFromGate());
+                    fanin[cursor++] = outputStart[from] + wire.getSourcePortIndex();
+                }
+            }
+        }
+        faninStart[gateCount] = cursor;
+
+        GateComponent[] inputGates = inputGateList.toArray(new GateComponent[0]);
+        int[] inputPorts = new int[inputCount];
+        for (int i = 0; i < inputCount; i++) {
+            inputPorts[i] = inputPortList.get(i);
+        }
+
+        return build(circuit, circuit.getStructureVersion(), gates, kinds, faninStart, fanin, outputStart,
+                inputGates, inputPorts);
+    }
+
+    /**
+     * Derive fanout lists and levels from gate fan-in and assemble the netlist.
+     * Signals below {@code inputGates.length} are external inputs, the rest are
+     * gate outputs as laid out by {@code outputStart}.
+     *
+     * @param structureVersion version of the circuit the arrays describe, which
+     *                         may be older than the live circuit's
+     */
+    static CompiledCircuit build(Circuit circuit, int structureVersion, GateComponent[] gates, byte[] kinds,
+            int[] faninStart, int[] fanin, int[] outputStart, GateComponent[] inputGates, int[] inputPorts) {
+        int gateCount = gates.length;
+        int inputCount = inputGates.length;
+        int nextSignal = outputStart[gateCount];
+        int faninTotal = faninStart[gateCount];
+
+        // A gate appearing more than once (a shared subcircuit definition) maps to its first position
+        Map<GateComponent, Integer> gateIndex = new IdentityHashMap<>(gateCount * 2);
+        for (int g = 0; g < gateCount; g++) {
+            gateIndex.putIfAbsent(gates[g], g);
+        }
+        int[] indegree = new int[gateCount];
+        for (int g = 0; g < gateCount; g++) {
+            for (int slot = faninStart[g]; slot < faninStart[g + 1]; slot++) {
+                if (fanin[slot] >= inputCount) {
+                    indegree[g]++;
+                }
+            }
+        }
+
+        // Signal fanout lists, used both for levelization and event scheduling
+        int[] fanoutStart = new int[nextSignal + 1];
+        for (int slot = 0; slot < faninTotal; slot++) {
+            fanoutStart[fanin[slot] + 1]++;
+        }
+        for (int signal = 0; signal < nextSignal; signal++) {
+            fanoutStart[signal + 1] += fanoutStart[signal];
+        }
+        int[] fanoutGates = new int[faninTotal];
+        int[] fill = new int[nextSignal];
+        for (int g = 0; g < gateCount; g++) {
+            for (int slot = faninStart[g]; slot < faninStart[g + 1]; slot++) {
+                int signal = fanin[slot];
+                fanoutGates[fanoutStart[signal] + fill[signal]++] = g;
+            }
+        }
+
+        // Kahn levelization over the internal driver edges
+        int[] order = new int[gateCount];
+        List<Integer> levelBounds = new ArrayList<>();
+        int head = 0;
+        int tail = 0;
+        for (int g = 0; g < gateCount; g++) {
+            if (indegree[g] == 0) {
+                order[tail++] = g;
+            }
+        }
+        int[] levels = new int[gateCount];
+        while (head < tail) {
+            int level = levelBounds.size();
+            levelBounds.add(head);
+            int levelEnd = tail;
+            for (; head < levelEnd; head++) {
+                int g = order[head];
+                levels[g] = level;
+                for (int signal = outputStart[g]; signal < outputStart[g + 1]; signal++) {
+                    for (int slot = fanoutStart[signal]; slot < fanoutStart[signal + 1]; slot++) {
+                        int sink = fanoutGates[slot];
+                        if (--indegree[sink] == 0) {
+                            order[tail++] = sink;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Gates left over sit on feedback loops; they form one final unordered level
+        boolean cyclic = tail < gateCount;
+        if (cyclic) {
+            int level = levelBounds.size();
+            levelBounds.add(tail);
+            for (int g = 0; g < gateCount; g++) {
+                if (indegree[g] > 0) {
+                    levels[g] = level;
+                    order[tail++] = g;
+                }
+            }
+        }
+        int[] levelStart = new int[levelBounds.size() + 1];
+        for (int i = 0; i < levelBounds.size(); i++) {
+            levelStart[i] = levelBounds.get(i);
+        }
+        levelStart[levelBounds.size()] = gateCount;
+
+        return new CompiledCircuit(circuit, structureVersion, gates, gateIndex, kinds, faninStart, fanin,
+                outputStart, fanoutStart, fanoutGates, inputGates, inputPorts, nextSignal, order, levels, levelStart,
+                cyclic);
+    }
+
+    /**
+     * Wire feeding a gate input from another gate of the same circuit, or null
+     * if the port is an external input
+     */
+    private static Connector internalDriver(GateComponent gate, int port, Map<GateComponent, Integer> gateIndex) {
+        Connector wire = gate.getInputWire(port);
+        if (wire == null || wire.getFromGate() == null || !gateIndex.containsKey(wire.getFromGate())) {
+            return null;
+        }
+        if (wire.getSourcePortIndex() < 0 || wire.getSourcePortIndex() >= wire.getFromGate().getOutputs()) {
+            return null;
+        }
+        return wire;
+    }
+
+    static byte kindOf(GateComponent gate) {
+        if (gate instanceof andd) {
+            return KIND_AND;
+        }
+        if (gate instanceof orr) {
+            return KIND_OR;
+        }
+        if (gate instanceof nott) {
+            return KIND_NOT;
+        }
+        if (gate instanceof LED) {
+            return KIND_LED;
+        }
+        return KIND_OPAQUE;
+    }
+
+    // ===== STRUCTURE ACCESSORS =====
+
+    /**
+     * Circuit this netlist was compiled from, or null once it has been
+     * garbage collected
+     */
+    public Circuit getSource() {
+        return source.get();
+    }
+
+    /**
+     * True while the source circuit has not been structurally edited since
+     * this netlist was compiled
+     */
+    public boolean isCurrent() {
+        Circuit circuit = source.get();
+        return circuit != null && circuit.getStructureVersion() == structureVersion;
+    }
+
+    public int getGateCount() {
+        return gates.length;
+    }
+
+    public GateComponent getGate(int gate) {
+        return gates[gate];
+    }
+
+    /**
+     * Index of a gate in this netlist, or -1 if it was not part of the circuit.
+     * In a flattened netlist a gate of a shared subcircuit definition occurs
+     * once per instance and this is its first occurrence; instances are told
+     * apart through {@link FlattenedCircuit}.
+     */
+    public int indexOf(GateComponent gate) {
+        Integer index = gateIndex.get(gate);
+        return index != null ? index : -1;
+    }
+
+    public byte getKind(int gate) {
+        return kinds[gate];
+    }
+
+    public int getFaninStart(int gate) {
+        return faninStart[gate];
+    }
+
+    public int getFaninEnd(int gate) {
+        return faninStart[gate + 1];
+    }
+
+    public int getFaninSignal(int slot) {
+        return fanin[slot];
+    }
+
+    public int getOutputSignal(int gate, int port) {
+        return outputStart[gate] + port;
+    }
+
+    public int getOutputCount(int gate) {
+        return outputStart[gate + 1] - outputStart[gate];
+    }
+
+    public int getFanoutStart(int signal) {
+        return fanoutStart[signal];
+    }
+
+    public int getFanoutEnd(int signal) {
+        return fanoutStart[signal + 1];
+    }
+
+    /**
+     * Gate reading a signal; a gate appears once per input port it connects
+     */
+    public int getFanoutGate(int slot) {
+        return fanoutGates[slot];
+    }
+
+    public int getSignalCount() {
+        return signalCount;
+    }
+
+    /**
+     * Gate driving a signal, or -1 for an external input
+     */
+    public int getDriverGate(int signal) {
+        if (signal < inputGates.length) {
+            return -1;
+        }
+        // Last gate whose outputs start at or before the signal
+        int low = 0;
+        int high = gates.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (outputStart[middle] <= signal) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Readable name of a signal: the input name for external inputs, gate +
+     * "_out" + port for gate outputs
+     */
+    public String getSignalName(int signal) {
+        int gate = getDriverGate(signal);
+        if (gate < 0) {
+            return getInputName(signal);
+        }
+        return gates[gate].getName() + "_out" + (signal - outputStart[gate]);
+    }
+
+    // ===== EXTERNAL INPUTS =====
+
+    public int getInputCount() {
+        return inputGates.length;
+    }
+
+    public GateComponent getInputGate(int input) {
+        return inputGates[input];
+    }
+
+    public int getInputPort(int input) {
+        return inputPorts[input];
+    }
+
+    /**
+     * Name of an external input in the form used by
+     * {@link CircuitLogicSimulator#run}
+     */
+    public String getInputName(int input) {
+        return inputGates[input].getName() + "_in" + inputPorts[input];
+    }
+
+    // ===== EVALUATION ORDER =====
+
+    /**
+     * Gate indices in topological order. When the circuit is cyclic the gates
+     * on feedback loops come last, in circuit order.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    public int getLevel(int gate) {
+        return levels[gate];
+    }
+
+    public int getLevelCount() {
+        return levelStart.length - 1;
+    }
+
+    /**
+     * Position in {@link #getOrder()} where a level starts; level
+     * {@code getLevelCount()} marks the end of the order
+     */
+    public int getLevelStart(int level) {
+        return levelStart[level];
+    }
+
+    /**
+     * True if the circuit has feedback loops, in which case one pass in
+     * {@link #getOrder()} is not enough to settle
+     */
+    public boolean isCyclic() {
+        return cyclic;
+    }
+}
@@ -0,0 +1,257 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.Arrays;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.LED;
+
+/**
+ * Evaluates a {@link CompiledCircuit} over a primitive signal array.
+ *
+ * Acyclic circuits settle in a single pass over the topological order. Cyclic
+ * circuits repeat the pass until no signal changes, bounded by
+ * {@link #MAX_PASSES} or, with a {@link SimulationControl}, by oscillation
+ * detection, cancellation and a deadline.
+ */
+public class CompiledCircuitSimulator {
+
+    public static final int MAX_PASSES = 100;
+
+    protected final CompiledCircuit netlist;
+    protected final boolean[] signals;
+
+    public CompiledCircuitSimulator(CompiledCircuit netlist) {
+        this.netlist = netlist;
+        this.signals = new boolean[netlist.getSignalCount()];
+    }
+
+    // ===== INPUT AND OUTPUT ACCESS =====
+
+    public CompiledCircuit getNetlist() {
+        return netlist;
+    }
+
+    public void setInput(int input, boolean value) {
+        signals[input] = value;
+    }
+
+    public boolean getSignal(int signal) {
+        return signals[signal];
+    }
+
+    public boolean getOutput(int gate, int port) {
+        return signals[netlist.getOutputSignal(gate, port)];
+    }
+
+    /**
+     * Value seen on an input port of a gate
+     */
+    public boolean getGateInput(int gate, int port) {
+        return signals[netlist.getFaninSignal(netlist.getFaninStart(gate) + port)];
+    }
+
+    /**
+     * Clear every signal, including the external inputs
+     */
+    public void reset() {
+        Arrays.fill(signals, false);
+    }
+
+    // ===== EVALUATION =====
+
+    /**
+     * Settle the circuit for the current external inputs.
+     *
+     * @return the number of passes over the evaluation order
+     */
+    public int evaluate() {
+        int[] order = netlist.getOrder();
+        if (!netlist.isCyclic()) {
+            for (int gate : order) {
+                evaluateGate(gate);
+            }
+            return 1;
+        }
+
+        int passes = 0;
+        boolean changed;
+        do {
+            changed = evaluatePass();
+            passes++;
+        } while (changed && passes < MAX_PASSES);
+        return passes;
+    }
+
+    /**
+     * Settle the circuit under the limits of a control. Cyclic circuits are
+     * evaluated until no signal changes, the signal state repeats (an
+     * oscillation, whose nets are reported), or the control stops the run.
+     */
+    public ConvergenceReport evaluate(SimulationControl control) {
+        if (!netlist.isCyclic()) {
+            ConvergenceReport.Status stop = control.check();
+            if (stop != null) {
+                return ConvergenceReport.stopped(netlist, stop, 0);
+            }
+            return ConvergenceReport.settled(netlist, evaluate());
+        }
+
+        CycleDetector detector = new CycleDetector(CycleDetector.hash(signals));
+        int passes = 0;
+        while (true) {
+            ConvergenceReport.Status stop = control.check();
+            if (stop != null) {
+                return ConvergenceReport.stopped(netlist, stop, passes);
+            }
+            boolean changed = evaluatePass();
+            passes++;
+            if (!changed) {
+                return ConvergenceReport.settled(netlist, passes);
+            }
+            if (passes >= control.getPassLimit()) {
+                return ConvergenceReport.stopped(netlist, ConvergenceReport.Status.PASS_LIMIT, passes);
+            }
+
+            int period = detector.next(CycleDetector.hash(signals));
+            if (period > 0) {
+                int[] oscillating = replayCycle(period);
+                passes += period;
+                if (oscillating != null) {
+                    return new ConvergenceReport(netlist, ConvergenceReport.Status.OSCILLATING, passes, period,
+                            oscillating);
+                }
+            }
+        }
+    }
+
+    private boolean evaluatePass() {
+        boolean changed = false;
+        for (int gate : netlist.getOrder()) {
+            changed |= evaluateGate(gate);
+        }
+        return changed;
+    }
+
+    /**
+     * Run one candidate period and check that the state comes back
+     *
+     * @return the signals that changed on the way, or null on a hash collision
+     */
+    private int[] replayCycle(int period) {
+        boolean[] start = signals.clone();
+        boolean[] moved = new boolean[signals.length];
+        for (int pass = 0; pass < period; pass++) {
+            evaluatePass();
+            for (int signal = 0; signal < signals.length; signal++) {
+                moved[signal] |= signals[signal] != start[signal];
+            }
+        }
+        if (!Arrays.equals(signals, start)) {
+            return null;
+        }
+        int count = 0;
+        for (boolean changed : moved) {
+            if (changed) {
+                count++;
+            }
+        }
+        int[] oscillating = new int[count];
+        count = 0;
+        for (int signal = 0; signal < moved.length; signal++) {
+            if (moved[signal]) {
+                oscillating[count++] = signal;
+            }
+        }
+        return oscillating;
+    }
+
+    /**
+     * Evaluate one gate from its fan-in signals.
+     *
+     * @return true if any of its output signals changed
+     */
+    boolean evaluateGate(int gate) {
+        int start = netlist.getFaninStart(gate);
+        int end = netlist.getFaninEnd(gate);
+
+        switch (netlist.getKind(gate)) {
+            case CompiledCircuit.KIND_AND: {
+                boolean value = true;
+                for (int i = start; i < end && value; i++) {
+                    value = signals[netlist.getFaninSignal(i)];
+                }
+                return store(netlist.getOutputSignal(gate, 0), value);
+            }
+            case CompiledCircuit.KIND_OR: {
+                boolean value = false;
+                for (int i = start; i < end && !value; i++) {
+                    value = signals[netlist.getFaninSignal(i)];
+                }
+                return store(netlist.getOutputSignal(gate, 0), value);
+            }
+            case CompiledCircuit.KIND_NOT:
+                return store(netlist.getOutputSignal(gate, 0),
+                        start == end || !signals[netlist.getFaninSignal(start)]);
+            case CompiledCircuit.KIND_LED:
+                return false;
+            default:
+                return evaluateOpaque(gate, start, end);
+        }
+    }
+
+    private boolean store(int signal, boolean value) {
+        if (signals[signal] == value) {
+            return false;
+        }
+        signals[signal] = value;
+        return true;
+    }
+
+    /**
+     * Gates without a compiled kind (subcircuits) are evaluated through the model
+     */
+    private boolean evaluateOpaque(int gate, int start, int end) {
+        GateComponent component = netlist.getGate(gate);
+        for (int i = start; i < end; i++) {
+            component.assignInputBit(i - start, signals[netlist.getFaninSignal(i)]);
+        }
+        component.evaluateInPlace();
+
+        boolean changed = false;
+        for (int port = 0; port < netlist.getOutputCount(gate); port++) {
+            changed |= store(netlist.getOutputSignal(gate, port), component.getOutputBit(port));
+        }
+        return changed;
+    }
+
+    // ===== MODEL SYNCHRONIZATION =====
+
+    /**
+     * Copy the settled signal values back into the gate objects so the model
+     * (and the UI reading it) reflects the simulation result
+     */
+    public void writeBack() {
+        writeBack(netlist.getGateCount());
+    }
+
+    /**
+     * Copy back only the first {@code gateCount} gates, the top-level gates of
+     * a flattened circuit
+     */
+    void writeBack(int gateCount) {
+        for (int gate = 0; gate < gateCount; gate++) {
+            GateComponent component = netlist.getGate(gate);
+            int start = netlist.getFaninStart(gate);
+            int end = netlist.getFaninEnd(gate);
+            for (int i = start; i < end; i++) {
+                component.assignInputBit(i - start, signals[netlist.getFaninSignal(i)]);
+            }
+            for (int port = 0; port < netlist.getOutputCount(gate); port++) {
+                component.assignOutputBit(port, signals[netlist.getOutputSignal(gate, port)]);
+            }
+            if (component instanceof LED) {
+                ((LED) component).computeOutput();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * How a simulation run of a {@link CompiledCircuit} ended
+ */
+public class ConvergenceReport {
+
+    public enum Status {
+        SETTLED,
+        /** The signal state repeated without settling */
+        OSCILLATING,
+        PASS_LIMIT,
+        CANCELLED,
+        DEADLINE_EXCEEDED
+    }
+
+    private final Status status;
+    private final int passes;
+    private final int period;
+    private final int[] oscillatingSignals;
+    private final List<String> oscillatingNets;
+
+    ConvergenceReport(CompiledCircuit netlist, Status status, int passes, int period, int[] oscillatingSignals) {
+        this.status = status;
+        this.passes = passes;
+        this.period = period;
+        this.oscillatingSignals = oscillatingSignals;
+
+        List<String> names = new ArrayList<>(oscillatingSignals.length);
+        for (int signal : oscillatingSignals) {
+            names.add(netlist.getSignalName(signal));
+        }
+        this.oscillatingNets = Collections.unmodifiableList(names);
+    }
+
+    static ConvergenceReport settled(CompiledCircuit netlist, int passes) {
+        return new ConvergenceReport(netlist, Status.SETTLED, passes, 0, new int[0]);
+    }
+
+    static ConvergenceReport stopped(CompiledCircuit netlist, Status status, int passes) {
+        return new ConvergenceReport(netlist, status, passes, 0, new int[0]);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSettled() {
+        return status == Status.SETTLED;
+    }
+
+    /**
+     * True if the run was stopped from outside (cancellation or deadline)
+     * rather than by the circuit itself
+     */
+    public boolean isAborted() {
+        return status == Status.CANCELLED || status == Status.DEADLINE_EXCEEDED;
+    }
+
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Passes per repetition of the signal state when oscillating, else 0
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Signals that change within one oscillation period
+     */
+    public int[] getOscillatingSignals() {
+        return oscillatingSignals.clone();
+    }
+
+    public List<String> getOscillatingNets() {
+        return oscillatingNets;
+    }
+
+    @Override
+    public String toString() {
+        if (status == Status.OSCILLATING) {
+            return status + " after " + passes + " passes, period " + period + ": " + oscillatingNets;
+        }
+        return status + " after " + passes + " passes";
+    }
+}
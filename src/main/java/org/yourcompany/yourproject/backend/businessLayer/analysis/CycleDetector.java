@@ -0,0 +1,65 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+/**
+ * Brent's cycle detection over hashes of successive signal states.
+ *
+ * Only one saved hash is kept, moved forward at power-of-two distances, so
+ * detection costs constant memory however long the transient is. A reported
+ * period is a candidate: callers confirm it by replaying that many passes.
+ */
+final class CycleDetector {
+
+    private long saved;
+    private int power = 1;
+    private int length;
+
+    CycleDetector(long initialHash) {
+        this.saved = initialHash;
+    }
+
+    /**
+     * Record the state after another pass
+     *
+     * @return the candidate period if this state was seen before, else 0
+     */
+    int next(long hash) {
+        length++;
+        if (hash == saved) {
+            return length;
+        }
+        if (length == power) {
+            saved = hash;
+            power <<= 1;
+            length = 0;
+        }
+        return 0;
+    }
+
+    // ===== STATE HASHING =====
+
+    static long hash(boolean[] signals) {
+        long hash = 0L;
+        for (int i = 0; i < signals.length; i++) {
+            if (signals[i]) {
+                hash += mix(i);
+            }
+        }
+        return hash;
+    }
+
+    static long hash(long[] words) {
+        long hash = 0L;
+        for (int i = 0; i < words.length; i++) {
+            hash += mix(words[i] + mix(i));
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,145 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Event-driven simulation over a {@link CompiledCircuit}.
+ *
+ * Only gates whose inputs actually changed are evaluated. Pending gates are
+ * kept in one bucket per level, so in an acyclic circuit every gate runs at
+ * most once per {@link #settle()}, after all of its drivers.
+ */
+public class EventDrivenSimulator extends CompiledCircuitSimulator {
+
+    private final int[] bucket;
+    private final int[] bucketHead;
+    private final int[] bucketSize;
+    private final boolean[] pending;
+    private int lowestPendingLevel;
+
+    public EventDrivenSimulator(CompiledCircuit netlist) {
+        super(netlist);
+        int levelCount = netlist.getLevelCount();
+        this.bucket = new int[netlist.getGateCount()];
+        this.bucketHead = new int[levelCount];
+        this.bucketSize = new int[levelCount];
+        this.pending = new boolean[netlist.getGateCount()];
+        scheduleAll();
+    }
+
+    // ===== INPUT CHANGES =====
+
+    /**
+     * Change an external input; its readers are scheduled only if the value
+     * differs from the current one
+     */
+    @Override
+    public void setInput(int input, boolean value) {
+        if (signals[input] != value) {
+            signals[input] = value;
+            scheduleReaders(input);
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        Arrays.fill(pending, false);
+        Arrays.fill(bucketSize, 0);
+        scheduleAll();
+    }
+
+    public boolean hasPendingEvents() {
+        return lowestPendingLevel < bucketSize.length;
+    }
+
+    // ===== EVALUATION =====
+
+    /**
+     * Full evaluation of the current inputs, equivalent to {@link #settle()}
+     * after every gate has been scheduled
+     */
+    @Override
+    public int evaluate() {
+        scheduleAll();
+        settle();
+        return 1;
+    }
+
+    /**
+     * Drain the pending gates level by level.
+     *
+     * @return the number of gate evaluations performed
+     */
+    public int settle() {
+        int evaluations = 0;
+        int levelCount = bucketSize.length;
+        // Gates on feedback loops may keep rescheduling each other
+        int budget = MAX_PASSES * Math.max(1, netlist.getGateCount());
+
+        while (lowestPendingLevel < levelCount) {
+            int level = lowestPendingLevel;
+            int base = netlist.getLevelStart(level);
+            int capacity = netlist.getLevelStart(level + 1) - base;
+
+            while (bucketSize[level] > 0) {
+                int gate = bucket[base + bucketHead[level]];
+                bucketHead[level] = (bucketHead[level] + 1) % capacity;
+                bucketSize[level]--;
+                pending[gate] = false;
+
+                evaluations++;
+                if (evaluateGate(gate)) {
+                    for (int port = 0; port < netlist.getOutputCount(gate); port++) {
+                        scheduleReaders(netlist.getOutputSignal(gate, port));
+                    }
+                }
+                if (evaluations >= budget) {
+                    discardPending();
+                    return evaluations;
+                }
+            }
+            lowestPendingLevel++;
+            while (lowestPendingLevel < levelCount && bucketSize[lowestPendingLevel] == 0) {
+                lowestPendingLevel++;
+            }
+        }
+        return evaluations;
+    }
+
+    // ===== SCHEDULING =====
+
+    private void scheduleReaders(int signal) {
+        for (int slot = netlist.getFanoutStart(signal); slot < netlist.getFanoutEnd(signal); slot++) {
+            schedule(netlist.getFanoutGate(slot));
+        }
+    }
+
+    private void schedule(int gate) {
+        if (pending[gate]) {
+            return;
+        }
+        pending[gate] = true;
+        int level = netlist.getLevel(gate);
+        int base = netlist.getLevelStart(level);
+        int capacity = netlist.getLevelStart(level + 1) - base;
+        bucket[base + (bucketHead[level] + bucketSize[level]) % capacity] = gate;
+        bucketSize[level]++;
+        if (level < lowestPendingLevel) {
+            lowestPendingLevel = level;
+        }
+    }
+
+    private void scheduleAll() {
+        lowestPendingLevel = bucketSize.length;
+        for (int gate : netlist.getOrder()) {
+            schedule(gate);
+        }
+    }
+
+    private void discardPending() {
+        Arrays.fill(pending, false);
+        Arrays.fill(bucketSize, 0);
+        lowestPendingLevel = bucketSize.length;
+    }
+}
@@ -0,0 +1,73 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link FaultSimulator} run: which faults the vectors detect,
+ * and with which vector each was first detected
+ */
+public class FaultCoverageReport {
+
+    private final List<FaultSimulator.Fault> faults;
+    private final int[] detectedBy;
+    private final int vectorCount;
+    private final int detectedCount;
+
+    FaultCoverageReport(List<FaultSimulator.Fault> faults, int[] detectedBy, int vectorCount) {
+        this.faults = faults;
+        this.detectedBy = detectedBy;
+        this.vectorCount = vectorCount;
+        int detected = 0;
+        for (int vector : detectedBy) {
+            if (vector >= 0) {
+                detected++;
+            }
+        }
+        this.detectedCount = detected;
+    }
+
+    public int getFaultCount() {
+        return faults.size();
+    }
+
+    public int getDetectedCount() {
+        return detectedCount;
+    }
+
+    public int getVectorCount() {
+        return vectorCount;
+    }
+
+    /**
+     * Detected faults as a fraction of all faults; 1 when there are none
+     */
+    public double getCoverage() {
+        return faults.isEmpty() ? 1.0 : (double) detectedCount / faults.size();
+    }
+
+    /**
+     * Index of the first vector detecting the fault at this position of
+     * {@link FaultSimulator#getFaults()}, or -1 if none does
+     */
+    public int getDetectingVector(int fault) {
+        return detectedBy[fault];
+    }
+
+    public List<FaultSimulator.Fault> getUndetectedFaults() {
+        List<FaultSimulator.Fault> undetected = new ArrayList<>();
+        for (int i = 0; i < faults.size(); i++) {
+            if (detectedBy[i] < 0) {
+                undetected.add(faults.get(i));
+            }
+        }
+        return Collections.unmodifiableList(undetected);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Fault coverage: %d/%d (%.1f%%) with %d vectors", detectedCount, faults.size(),
+                getCoverage() * 100, vectorCount);
+    }
+}
@@ -0,0 +1,339 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.BoundaryPorts;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+
+/**
+ * Single stuck-at fault simulation over the flattened form of a circuit.
+ *
+ * Faults are enumerated on every signal stem (external inputs and gate
+ * outputs) and on every gate input pin, which is where each wire ends, stuck
+ * at 0 and at 1. Each 64-bit word simulates the good machine in lane 0 and up
+ * to 63 faulty machines in lanes 1 to 63: a fault is injected by forcing its
+ * lane at one site through an AND and an OR mask, and everything else is the
+ * same word operations as {@link BitParallelSimulator}. A fault is detected
+ * when an observed signal differs from lane 0, and is dropped from its group
+ * at once; a group stops as soon as all of its faults are detected.
+ *
+ * Every vector starts from cleared signals. Only AND, OR, NOT and LED gates
+ * can be simulated; subcircuits are inlined first.
+ */
+public class FaultSimulator {
+
+    /** Faulty machines per word, next to the good machine in lane 0 */
+    public static final int FAULTS_PER_WORD = BitParallelSimulator.LANES - 1;
+
+    /**
+     * One stuck-at fault, on a signal stem or on a gate input pin
+     */
+    public static final class Fault {
+        private final boolean pin;
+        private final int site;
+        private final boolean stuckAt;
+        private final String siteName;
+
+        Fault(boolean pin, int site, boolean stuckAt, String siteName) {
+            this.pin = pin;
+            this.site = site;
+            this.stuckAt = stuckAt;
+            this.siteName = siteName;
+        }
+
+        /**
+         * True for a gate input pin, whose site is a fan-in slot of the
+         * netlist; false for a stem, whose site is a signal
+         */
+        public boolean isPin() {
+            return pin;
+        }
+
+        public int getSite() {
+            return site;
+        }
+
+        public boolean getStuckAt() {
+            return stuckAt;
+        }
+
+        /**
+         * Hierarchical name of the site: the signal path for a stem, gate
+         * path + "_in" + port for a pin
+         */
+        public String getSiteName() {
+            return siteName;
+        }
+
+        @Override
+        public String toString() {
+            return siteName + " stuck-at-" + (stuckAt ? 1 : 0);
+        }
+    }
+
+    private final FlattenedCircuit flat;
+    private final CompiledCircuit netlist;
+    private final int[] inputIndex;
+    private final List<String> inputNames;
+    private final int[] observedSignals;
+    private final int[] observedSlots; // LED pins, observed after pin faults
+    private final List<Fault> faults;
+
+    private final long[] words;
+    private final long[] stemAnd;
+    private final long[] stemOr;
+    private final long[] pinAnd;
+    private final long[] pinOr;
+
+    /**
+     * Fault simulator driving every external input, in netlist order, and
+     * observing the free outputs and the LEDs of the top-level circuit
+     */
+    public FaultSimulator(Circuit circuit) {
+        this(FlattenedCircuit.of(circuit), null, null);
+    }
+
+    /**
+     * @param inputNames  circuit inputs in vector order, named gate + "_in" +
+     *                    port as in {@link CircuitLogicSimulator#run}; inputs
+     *                    not listed are held low
+     * @param outputNames top-level gates whose output 0 is observed
+     */
+    public FaultSimulator(Circuit circuit, List<String> inputNames, List<String> outputNames) {
+        this(FlattenedCircuit.of(circuit), inputNames, outputNames);
+    }
+
+    private FaultSimulator(FlattenedCircuit flat, List<String> inputNames, List<String> outputNames) {
+        this.flat = flat;
+        this.netlist = flat.getNetlist();
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            if (netlist.getKind(gate) == CompiledCircuit.KIND_OPAQUE) {
+                throw new IllegalArgumentException("Fault simulation supports AND, OR, NOT and LED gates, not "
+                        + flat.getGatePath(gate));
+            }
+        }
+
+        SimulationSession ports = new SimulationSession(flat);
+        if (inputNames == null) {
+            List<String> names = new ArrayList<>();
+            this.inputIndex = new int[netlist.getInputCount()];
+            for (int input = 0; input < inputIndex.length; input++) {
+                inputIndex[input] = input;
+                names.add(netlist.getInputName(input));
+            }
+            this.inputNames = Collections.unmodifiableList(names);
+        } else {
+            this.inputIndex = ports.inputHandles(inputNames);
+            this.inputNames = Collections.unmodifiableList(new ArrayList<>(inputNames));
+        }
+
+        Circuit top = netlist.getSource();
+        if (outputNames == null) {
+            this.observedSignals = boundaryOutputSignals(top);
+            this.observedSlots = topLevelLedPins(top);
+        } else {
+            this.observedSignals = ports.outputHandles(outputNames);
+            this.observedSlots = new int[0];
+        }
+
+        int signals = netlist.getSignalCount();
+        int slots = netlist.getFaninStart(netlist.getGateCount());
+        this.words = new long[signals];
+        this.stemAnd = new long[signals];
+        this.stemOr = new long[signals];
+        this.pinAnd = new long[slots];
+        this.pinOr = new long[slots];
+        Arrays.fill(stemAnd, -1L);
+        Arrays.fill(pinAnd, -1L);
+        this.faults = Collections.unmodifiableList(enumerateFaults());
+    }
+
+    private int[] boundaryOutputSignals(Circuit top) {
+        BoundaryPorts boundary = top.getBoundaryPorts();
+        int[] signals = new int[boundary.getOutputCount()];
+        for (int i = 0; i < signals.length; i++) {
+            signals[i] = flat.getOutputSignal(boundary.getOutputGate(i), boundary.getOutputPort(i));
+        }
+        return signals;
+    }
+
+    private int[] topLevelLedPins(Circuit top) {
+        List<Integer> slots = new ArrayList<>();
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            if (netlist.getKind(gate) == CompiledCircuit.KIND_LED
+                    && top.getGates().contains(netlist.getGate(gate))) {
+                for (int slot = netlist.getFaninStart(gate); slot < netlist.getFaninEnd(gate); slot++) {
+                    slots.add(slot);
+                }
+            }
+        }
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Both polarities on every stem, then on every pin. Outputs of gates
+     * without inputs (constants of the flattening) are skipped.
+     */
+    private List<Fault> enumerateFaults() {
+        List<Fault> list = new ArrayList<>();
+        for (int signal = 0; signal < netlist.getSignalCount(); signal++) {
+            int driver = netlist.getDriverGate(signal);
+            if (driver >= 0 && netlist.getFaninStart(driver) == netlist.getFaninEnd(driver)) {
+                continue;
+            }
+            String name = flat.getSignalPath(signal);
+            list.add(new Fault(false, signal, false, name));
+            list.add(new Fault(false, signal, true, name));
+        }
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            int start = netlist.getFaninStart(gate);
+            for (int slot = start; slot < netlist.getFaninEnd(gate); slot++) {
+                String name = flat.getGatePath(gate) + "_in" + (slot - start);
+                list.add(new Fault(true, slot, false, name));
+                list.add(new Fault(true, slot, true, name));
+            }
+        }
+        return list;
+    }
+
+    public List<Fault> getFaults() {
+        return faults;
+    }
+
+    public List<String> getInputNames() {
+        return inputNames;
+    }
+
+    // ===== FAULT SIMULATION =====
+
+    /**
+     * Simulate every fault against the vectors, in input name order
+     */
+    public FaultCoverageReport run(List<boolean[]> vectors) {
+        int[] detectedBy = new int[faults.size()];
+        Arrays.fill(detectedBy, -1);
+
+        for (int first = 0; first < faults.size(); first += FAULTS_PER_WORD) {
+            int count = Math.min(FAULTS_PER_WORD, faults.size() - first);
+            inject(first, count, true);
+            long active = count == FAULTS_PER_WORD ? ~1L : ((1L << count) - 1) << 1;
+
+            for (int vector = 0; vector < vectors.size() && active != 0; vector++) {
+                long detected = simulate(vectors.get(vector)) & active;
+                active &= ~detected;
+                while (detected != 0) {
+                    int lane = Long.numberOfTrailingZeros(detected);
+                    detectedBy[first + lane - 1] = vector;
+                    detected &= detected - 1;
+                }
+            }
+            inject(first, count, false);
+        }
+        return new FaultCoverageReport(faults, detectedBy, vectors.size());
+    }
+
+    /**
+     * Force (or release) the lanes of a group of faults at their sites
+     */
+    private void inject(int first, int count, boolean on) {
+        for (int i = 0; i < count; i++) {
+            Fault fault = faults.get(first + i);
+            long lane = 1L << (i + 1);
+            long[] and = fault.isPin() ? pinAnd : stemAnd;
+            long[] or = fault.isPin() ? pinOr : stemOr;
+            if (!on) {
+                and[fault.getSite()] |= lane;
+                or[fault.getSite()] &= ~lane;
+            } else if (fault.getStuckAt()) {
+                or[fault.getSite()] |= lane;
+            } else {
+                and[fault.getSite()] &= ~lane;
+            }
+        }
+    }
+
+    /**
+     * Run one vector on all lanes from cleared signals
+     *
+     * @return lanes whose observed signals differ from the good machine
+     */
+    private long simulate(boolean[] vector) {
+        Arrays.fill(words, 0L);
+        for (int i = 0; i < inputIndex.length; i++) {
+            words[inputIndex[i]] = vector[i] ? -1L : 0L;
+        }
+        for (int input = 0; input < netlist.getInputCount(); input++) {
+            words[input] = (words[input] & stemAnd[input]) | stemOr[input];
+        }
+
+        if (!netlist.isCyclic()) {
+            for (int gate : netlist.getOrder()) {
+                evaluateGate(gate);
+            }
+        } else {
+            boolean changed;
+            int passes = 0;
+            do {
+                changed = false;
+                for (int gate : netlist.getOrder()) {
+                    changed |= evaluateGate(gate);
+                }
+                passes++;
+            } while (changed && passes < CompiledCircuitSimulator.MAX_PASSES);
+        }
+
+        long differs = 0L;
+        for (int signal : observedSignals) {
+            differs |= words[signal] ^ -(words[signal] & 1L);
+        }
+        for (int slot : observedSlots) {
+            long value = pinValue(slot);
+            differs |= value ^ -(value & 1L);
+        }
+        return differs;
+    }
+
+    private long pinValue(int slot) {
+        return (words[netlist.getFaninSignal(slot)] & pinAnd[slot]) | pinOr[slot];
+    }
+
+    private boolean evaluateGate(int gate) {
+        int start = netlist.getFaninStart(gate);
+        int end = netlist.getFaninEnd(gate);
+        long value;
+        switch (netlist.getKind(gate)) {
+            case CompiledCircuit.KIND_AND:
+                value = -1L;
+                for (int i = start; i < end; i++) {
+                    value &= pinValue(i);
+                }
+                break;
+            case CompiledCircuit.KIND_OR:
+                value = 0L;
+                for (int i = start; i < end; i++) {
+                    value |= pinValue(i);
+                }
+                break;
+            case CompiledCircuit.KIND_NOT:
+                value = start == end ? -1L : ~pinValue(start);
+                break;
+            default:
+                // LEDs drive nothing; their pins are observed directly
+                return false;
+        }
+        int signal = netlist.getOutputSignal(gate, 0);
+        value = (value & stemAnd[signal]) | stemOr[signal];
+        if (words[signal] == value) {
+            return false;
+        }
+        words[signal] = value;
+        return true;
+    }
+
+    public FlattenedCircuit getFlattenedCircuit() {
+        return flat;
+    }
+}
@@ -0,0 +1,549 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.BoundaryPorts;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.CircuitSnapshot;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+
+/**
+ * A circuit with every nested {@link SubcircuitComponent} inlined into one
+ * {@link CompiledCircuit}.
+ *
+ * Subcircuit ports disappear: inner gates read the signals that drive the
+ * subcircuit inputs directly, and gates reading a subcircuit output read the
+ * inner gate behind it. Ports are matched the way
+ * {@link SubcircuitComponent} matches them at runtime, so the flat netlist
+ * computes what the hierarchy computes without re-evaluating inner circuits
+ * per input change. External inputs are the same as those of the top-level
+ * circuit's own compiled form, and every flat gate keeps a hierarchical path
+ * such as {@code CIRCUIT:Adder/Or3} for reporting.
+ *
+ * Flattening reads a {@link CircuitSnapshot} rather than the live circuit, so
+ * a background simulation can flatten a snapshot taken by the editor.
+ */
+public final class FlattenedCircuit {
+
+    // Last flattened form of each circuit, reused while no circuit in its hierarchy changed
+    private static final Map<Circuit, FlattenedCircuit> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final String PATH_SEPARATOR = "/";
+
+    // Top-level gates in order and their names when flattened. The snapshot
+    // itself is not kept: it holds the source circuit, the key of CACHE.
+    private final GateComponent[] topGates;
+    private final String[] topGateNames;
+    private final CompiledCircuit netlist;
+    private final String[] gatePaths;
+    // Nested circuits of the hierarchy and the versions they were flattened at
+    private final Circuit[] circuits;
+    private final int[] structureVersions;
+    private final Map<GateComponent, int[]> topOutputSignals;
+    private final int topGateCount;
+    private final SubcircuitComponent[] instances;
+    private final int[][] instanceInputs;
+    private final int[][] instanceOutputs;
+    // Per instance: the signal behind each bit of its state vector
+    private final int[][] instanceStates;
+    private final int[] instanceVersions;
+
+    private FlattenedCircuit(GateComponent[] topGates, String[] topGateNames, CompiledCircuit netlist,
+            String[] gatePaths,
+            Circuit[] circuits, int[] structureVersions, Map<GateComponent, int[]> topOutputSignals, int topGateCount,
+            SubcircuitComponent[] instances, int[][] instanceInputs, int[][] instanceOutputs, int[][] instanceStates,
+            int[] instanceVersions) {
+        this.topGates = topGates;
+        this.topGateNames = topGateNames;
+        this.netlist = netlist;
+        this.gatePaths = gatePaths;
+        this.circuits = circuits;
+        this.structureVersions = structureVersions;
+        this.topOutputSignals = topOutputSignals;
+        this.topGateCount = topGateCount;
+        this.instances = instances;
+        this.instanceInputs = instanceInputs;
+        this.instanceOutputs = instanceOutputs;
+        this.instanceStates = instanceStates;
+        this.instanceVersions = instanceVersions;
+    }
+
+    // ===== FLATTENING =====
+
+    /**
+     * Flattened form of a circuit, flattened again only if a circuit anywhere
+     * in its hierarchy was structurally edited since the last call
+     */
+    public static FlattenedCircuit of(Circuit circuit) {
+        FlattenedCircuit flat = CACHE.get(circuit);
+        if (flat == null || !flat.isCurrent()) {
+            flat = flatten(circuit);
+            CACHE.put(circuit, flat);
+        }
+        return flat;
+    }
+
+    /**
+     * Inline every subcircuit of a circuit, recursively
+     *
+     * @throws IllegalArgumentException if a circuit contains itself
+     */
+    public static FlattenedCircuit flatten(Circuit circuit) {
+        return flatten(circuit.snapshot());
+    }
+
+    /**
+     * Inline every subcircuit of a snapshot. Only the snapshot is read, so this
+     * can run on a background thread while the circuit is being edited.
+     */
+    public static FlattenedCircuit flatten(CircuitSnapshot snapshot) {
+        Builder builder = new Builder(snapshot);
+        builder.expand(snapshot, "", null);
+        return builder.finish();
+    }
+
+    // ===== ACCESSORS =====
+
+    public CompiledCircuit getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * True while no circuit in the hierarchy has been structurally edited
+     */
+    public boolean isCurrent() {
+        if (!netlist.isCurrent()) {
+            return false;
+        }
+        for (int i = 0; i < circuits.length; i++) {
+            if (circuits[i].getStructureVersion() != structureVersions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hierarchical name of a flat gate: subcircuit gate names joined by "/",
+     * ending with the gate's own name
+     */
+    public String getGatePath(int gate) {
+        return gatePaths[gate];
+    }
+
+    /**
+     * Hierarchical name of a signal: the input name for external inputs, gate
+     * path + "_out" + port for gate outputs
+     */
+    public String getSignalPath(int signal) {
+        int gate = netlist.getDriverGate(signal);
+        if (gate < 0) {
+            return netlist.getInputName(signal);
+        }
+        return gatePaths[gate] + "_out" + (signal - netlist.getOutputSignal(gate, 0));
+    }
+
+    /**
+     * Flat signal carrying an output of a top-level gate, subcircuits
+     * included, or -1 if the gate is not in the top-level circuit
+     */
+    public int getOutputSignal(GateComponent topGate, int port) {
+        int[] signals = topOutputSignals.get(topGate);
+        return signals == null || port < 0 || port >= signals.length ? -1 : signals[port];
+    }
+
+    /**
+     * Flat signal carrying output 0 of the top-level gate with the given name
+     * at flattening time, or -1 if no gate with an output has it. The last
+     * such gate wins, as in the map returned by {@link CircuitLogicSimulator#run};
+     * the live circuit is not read.
+     */
+    public int getOutputSignal(String topGateName) {
+        int signal = -1;
+        for (int i = 0; i < topGates.length; i++) {
+            if (topGateNames[i].equals(topGateName) && getOutputSignal(topGates[i], 0) >= 0) {
+                signal = getOutputSignal(topGates[i], 0);
+            }
+        }
+        return signal;
+    }
+
+    public int getSubcircuitCount() {
+        return instances.length;
+    }
+
+    // ===== MODEL SYNCHRONIZATION =====
+
+    /**
+     * Copy a settled simulation into the model: the top-level gates, as
+     * {@link CompiledCircuitSimulator#writeBack()} does, and the ports and
+     * state vector of every subcircuit component in the hierarchy.
+     *
+     * Gates of subcircuit definitions are not written, since every instance
+     * shares them; each instance's signals go into its own state vector, which
+     * {@link SubcircuitComponent#restoreInstanceState()} loads into the
+     * definition on request. A subcircuit component nested in a definition is
+     * itself shared by every instance of the enclosing definition, so its
+     * ports and state are those of the last enclosing instance written.
+     */
+    public void writeBack(CompiledCircuitSimulator simulator) {
+        simulator.writeBack(topGateCount);
+        for (int i = 0; i < instances.length; i++) {
+            for (int port = 0; port < instanceInputs[i].length; port++) {
+                instances[i].assignInputBit(port, simulator.getSignal(instanceInputs[i][port]));
+            }
+            for (int port = 0; port < instanceOutputs[i].length; port++) {
+                instances[i].assignOutputBit(port, simulator.getSignal(instanceOutputs[i][port]));
+            }
+            int[] stateSignals = instanceStates[i];
+            long[] state = new long[(stateSignals.length + 63) >>> 6];
+            for (int bit = 0; bit < stateSignals.length; bit++) {
+                if (simulator.getSignal(stateSignals[bit])) {
+                    state[bit >>> 6] |= 1L << bit;
+                }
+            }
+            instances[i].loadInstanceState(state, instanceVersions[i]);
+        }
+    }
+
+    // ===== BUILDER =====
+
+    /**
+     * Collects flat gates while walking the hierarchy. Values are first
+     * described as sources (an external input, a gate output, constant low, or
+     * an alias for a subcircuit output that is filled in once the subcircuit
+     * has been expanded) and turned into signal numbers at the end.
+     */
+    private static final class Builder {
+        private static final int EXTERNAL = 0;
+        private static final int GATE_OUTPUT = 1;
+        private static final int ALIAS = 2;
+
+        private final CircuitSnapshot top;
+        private final List<GateComponent> gates = new ArrayList<>();
+        private final List<String> paths = new ArrayList<>();
+        private final List<Integer> outputCounts = new ArrayList<>();
+        private final List<int[]> faninSources = new ArrayList<>();
+        private final List<GateComponent> inputGates = new ArrayList<>();
+        private final List<Integer> inputPorts = new ArrayList<>();
+
+        private int[] sourceKind = new int[64];
+        private int[] sourceA = new int[64];
+        private int[] sourceB = new int[64];
+        private int sourceCount;
+        private int lowSource = -1;
+
+        private final Map<Circuit, Integer> versions = new IdentityHashMap<>();
+        private final Set<CircuitSnapshot> expanding = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<SubcircuitComponent> instances = new ArrayList<>();
+        private final List<int[]> instanceInputSources = new ArrayList<>();
+        private final List<int[]> instanceOutputSources = new ArrayList<>();
+        private final List<int[]> instanceStateSources = new ArrayList<>();
+        private final List<Integer> instanceVersions = new ArrayList<>();
+        private Map<GateComponent, int[]> topOutputs;
+        private int topGateCount;
+        private int[] expandedState; // state sources of the circuit expand() last finished
+
+        Builder(CircuitSnapshot top) {
+            this.top = top;
+        }
+
+        /**
+         * Inline one circuit
+         *
+         * @param boundary sources driving the circuit's free input ports, in
+         *                 subcircuit input order; null for the top level
+         * @return sources of the circuit's free output ports, in subcircuit
+         *         output order
+         */
+        int[] expand(CircuitSnapshot circuit, String prefix, int[] boundary) {
+            if (!expanding.add(circuit)) {
+                throw new IllegalArgumentException("Circuit contains itself: " + circuit.getName());
+            }
+            versions.putIfAbsent(circuit.getSource(), circuit.getStructureVersion());
+
+            Map<GateComponent, int[]> outputs = new IdentityHashMap<>();
+            Map<GateComponent, String> memberPaths = new IdentityHashMap<>();
+            Map<GateComponent, Integer> memberGates = new IdentityHashMap<>();
+            Map<String, Integer> nameCounts = new HashMap<>();
+
+            // Output sources first, so wires can refer to any gate of the circuit
+            for (int member = 0; member < circuit.size(); member++) {
+                CircuitSnapshot.GateEntry entry = circuit.getEntry(member);
+                GateComponent gate = entry.getGate();
+                String path = prefix + uniqueName(entry.getName(), nameCounts);
+                memberPaths.put(gate, path);
+                int[] sources = new int[entry.getOutputs()];
+                if (entry.getDefinition() != null) {
+                    for (int port = 0; port < sources.length; port++) {
+                        sources[port] = addSource(ALIAS, -1, 0);
+                    }
+                } else {
+                    int flat = addGate(gate, path, entry.getOutputs());
+                    memberGates.put(gate, flat);
+                    for (int port = 0; port < sources.length; port++) {
+                        sources[port] = addSource(GATE_OUTPUT, flat, port);
+                    }
+                }
+                outputs.put(gate, sources);
+            }
+
+            if (boundary == null) {
+                topGateCount = gates.size();
+            }
+            Map<GateComponent, int[]> boundaryPorts = boundary == null ? null : boundaryInputPorts(circuit);
+
+            // Every port of every member, inputs then outputs, as SubcircuitComponent packs them
+            int[] state = new int[portBitCount(circuit)];
+            int bit = 0;
+            for (int member = 0; member < circuit.size(); member++) {
+                CircuitSnapshot.GateEntry entry = circuit.getEntry(member);
+                GateComponent gate = entry.getGate();
+                int[] inputs = new int[entry.getInputs()];
+                for (int port = 0; port < inputs.length; port++) {
+                    GateComponent from = entry.getDriver(port);
+                    int fromPort = entry.getDriverPort(port);
+                    int[] driver = from == null ? null : outputs.get(from);
+                    if (driver != null && fromPort >= 0 && fromPort < driver.length) {
+                        inputs[port] = driver[fromPort];
+                    } else if (boundary == null) {
+                        inputs[port] = addSource(EXTERNAL, inputGates.size(), 0);
+                        inputGates.add(gate);
+                        inputPorts.add(port);
+                    } else {
+                        int[] indices = boundaryPorts.get(gate);
+                        int index = indices == null ? -1 : indices[port];
+                        inputs[port] = index >= 0 && index < boundary.length ? boundary[index] : low();
+                    }
+                }
+
+                System.arraycopy(inputs, 0, state, bit, inputs.length);
+                bit += inputs.length;
+                int[] memberOutputs = outputs.get(gate);
+                System.arraycopy(memberOutputs, 0, state, bit, memberOutputs.length);
+                bit += memberOutputs.length;
+
+                if (entry.getDefinition() != null) {
+                    SubcircuitComponent subcircuit = (SubcircuitComponent) gate;
+                    int[] innerOutputs = expand(entry.getDefinition(), memberPaths.get(gate) + PATH_SEPARATOR,
+                            inputs);
+                    instanceStateSources.add(expandedState);
+                    instanceVersions.add(entry.getDefinition().getStructureVersion());
+                    int[] sources = outputs.get(gate);
+                    for (int port = 0; port < sources.length; port++) {
+                        sourceA[sources[port]] = port < innerOutputs.length ? innerOutputs[port] : low();
+                    }
+                    instances.add(subcircuit);
+                    instanceInputSources.add(inputs);
+                    instanceOutputSources.add(sources);
+                } else {
+                    faninSources.set(memberGates.get(gate), inputs);
+                }
+            }
+
+            // Free output ports in the order SubcircuitComponent reads them
+            BoundaryPorts ports = circuit.getBoundaryPorts();
+            int[] boundaryOutputs = new int[ports.getOutputCount()];
+            for (int i = 0; i < boundaryOutputs.length; i++) {
+                boundaryOutputs[i] = outputs.get(ports.getOutputGate(i))[ports.getOutputPort(i)];
+            }
+
+            if (boundary == null) {
+                topOutputs = outputs;
+            }
+            expanding.remove(circuit);
+            expandedState = state;
+            return boundaryOutputs;
+        }
+
+        private static int portBitCount(CircuitSnapshot circuit) {
+            int bits = 0;
+            for (int member = 0; member < circuit.size(); member++) {
+                bits += circuit.getEntry(member).getInputs() + circuit.getEntry(member).getOutputs();
+            }
+            return bits;
+        }
+
+        /**
+         * Subcircuit input index of each free input port, in the order
+         * SubcircuitComponent assigns them; -1 for ports it does not drive
+         */
+        private static Map<GateComponent, int[]> boundaryInputPorts(CircuitSnapshot circuit) {
+            Map<GateComponent, int[]> ports = new IdentityHashMap<>();
+            BoundaryPorts boundary = circuit.getBoundaryPorts();
+            for (int i = 0; i < boundary.getInputCount(); i++) {
+                int[] indices = ports.computeIfAbsent(boundary.getInputGate(i), g -> {
+                    int[] none = new int[circuit.getEntry(circuit.indexOf(g)).getInputs()];
+                    Arrays.fill(none, -1);
+                    return none;
+                });
+                indices[boundary.getInputPort(i)] = i;
+            }
+            return ports;
+        }
+
+        private static String uniqueName(String name, Map<String, Integer> nameCounts) {
+            int count = nameCounts.merge(name, 1, Integer::sum);
+            return count == 1 ? name : name + "#" + count;
+        }
+
+        private int addGate(GateComponent gate, String path, int outputs) {
+            gates.add(gate);
+            paths.add(path);
+            outputCounts.add(outputs);
+            faninSources.add(new int[0]);
+            return gates.size() - 1;
+        }
+
+        private int addSource(int kind, int a, int b) {
+            if (sourceCount == sourceKind.length) {
+                sourceKind = Arrays.copyOf(sourceKind, sourceCount * 2);
+                sourceA = Arrays.copyOf(sourceA, sourceCount * 2);
+                sourceB = Arrays.copyOf(sourceB, sourceCount * 2);
+            }
+            sourceKind[sourceCount] = kind;
+            sourceA[sourceCount] = a;
+            sourceB[sourceCount] = b;
+            return sourceCount++;
+        }
+
+        /**
+         * Constant low source for ports nothing drives, backed by one OR gate
+         * without inputs
+         */
+        private int low() {
+            if (lowSource < 0) {
+                int flat = addGate(new ConstantLow(), "const_low", 1);
+                lowSource = addSource(GATE_OUTPUT, flat, 0);
+            }
+            return lowSource;
+        }
+
+        // ===== SIGNAL NUMBERING =====
+
+        FlattenedCircuit finish() {
+            int gateCount = gates.size();
+            int inputCount = inputGates.size();
+            GateComponent[] gateArray = gates.toArray(new GateComponent[0]);
+            byte[] kinds = new byte[gateCount];
+            int[] outputStart = new int[gateCount + 1];
+            int[] faninStart = new int[gateCount + 1];
+            int next = inputCount;
+            int faninTotal = 0;
+            for (int g = 0; g < gateCount; g++) {
+                kinds[g] = gateArray[g] instanceof ConstantLow ? CompiledCircuit.KIND_OR
+                        : CompiledCircuit.kindOf(gateArray[g]);
+                outputStart[g] = next;
+                next += outputCounts.get(g);
+                faninStart[g] = faninTotal;
+                faninTotal += faninSources.get(g).length;
+            }
+            outputStart[gateCount] = next;
+            faninStart[gateCount] = faninTotal;
+
+            int[] fanin = new int[faninTotal];
+            for (int g = 0; g < gateCount; g++) {
+                int[] sources = faninSources.get(g);
+                for (int i = 0; i < sources.length; i++) {
+                    fanin[faninStart[g] + i] = signalOf(sources[i], outputStart);
+                }
+            }
+
+            int[] inputPortArray = new int[inputCount];
+            for (int i = 0; i < inputCount; i++) {
+                inputPortArray[i] = inputPorts.get(i);
+            }
+            CompiledCircuit netlist = CompiledCircuit.build(top.getSource(), top.getStructureVersion(), gateArray,
+                    kinds, faninStart, fanin, outputStart, inputGates.toArray(new GateComponent[0]), inputPortArray);
+
+            Map<GateComponent, int[]> topSignals = new IdentityHashMap<>();
+            for (Map.Entry<GateComponent, int[]> entry : topOutputs.entrySet()) {
+                topSignals.put(entry.getKey(), signalsOf(entry.getValue(), outputStart));
+            }
+            int[][] instanceInputs = new int[instances.size()][];
+            int[][] instanceOutputs = new int[instances.size()][];
+            int[][] instanceStates = new int[instances.size()][];
+            int[] instanceVersionArray = new int[instances.size()];
+            for (int i = 0; i < instances.size(); i++) {
+                instanceInputs[i] = signalsOf(instanceInputSources.get(i), outputStart);
+                instanceOutputs[i] = signalsOf(instanceOutputSources.get(i), outputStart);
+                instanceStates[i] = signalsOf(instanceStateSources.get(i), outputStart);
+                instanceVersionArray[i] = instanceVersions.get(i);
+            }
+
+            // The top circuit is checked through the netlist, which only holds it weakly
+            versions.remove(top.getSource());
+            Circuit[] circuitArray = versions.keySet().toArray(new Circuit[0]);
+            int[] versionArray = new int[circuitArray.length];
+            for (int i = 0; i < circuitArray.length; i++) {
+                versionArray[i] = versions.get(circuitArray[i]);
+            }
+
+            GateComponent[] topGates = new GateComponent[top.size()];
+            String[] topGateNames = new String[top.size()];
+            for (int i = 0; i < topGates.length; i++) {
+                topGates[i] = top.getEntry(i).getGate();
+                topGateNames[i] = top.getEntry(i).getName();
+            }
+            return new FlattenedCircuit(topGates, topGateNames, netlist, paths.toArray(new String[0]), circuitArray, versionArray,
+                    topSignals, topGateCount, instances.toArray(new SubcircuitComponent[0]), instanceInputs,
+                    instanceOutputs, instanceStates, instanceVersionArray);
+        }
+
+        private int[] signalsOf(int[] sources, int[] outputStart) {
+            int[] signals = new int[sources.length];
+            for (int i = 0; i < sources.length; i++) {
+                signals[i] = signalOf(sources[i], outputStart);
+            }
+            return signals;
+        }
+
+        private int signalOf(int source, int[] outputStart) {
+            while (sourceKind[source] == ALIAS) {
+                source = sourceA[source];
+            }
+            if (sourceKind[source] == EXTERNAL) {
+                return sourceA[source];
+            }
+            return outputStart[sourceA[source]] + sourceB[source];
+        }
+    }
+
+    /**
+     * Model stand-in for the constant low signal of undriven subcircuit ports
+     */
+    private static final class ConstantLow extends GateComponent {
+        ConstantLow() {
+            super("const_low", 0, 1);
+        }
+
+        @Override
+        protected void calculateOutput() {
+            assignOutputBit(0, false);
+        }
+
+        @Override
+        public void evaluate() {
+            calculateOutput();
+        }
+
+        @Override
+        public GateComponent copy() {
+            return new ConstantLow();
+        }
+
+        @Override
+        public void update() {
+            calculateOutput();
+        }
+    }
+}
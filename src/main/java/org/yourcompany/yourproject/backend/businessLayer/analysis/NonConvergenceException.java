@@ -0,0 +1,20 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+/**
+ * Thrown when a simulation run ends without a settled result
+ */
+public class NonConvergenceException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ConvergenceReport report;
+
+    public NonConvergenceException(ConvergenceReport report) {
+        super("Circuit did not settle: " + report);
+        this.report = report;
+    }
+
+    public ConvergenceReport getReport() {
+        return report;
+    }
+}
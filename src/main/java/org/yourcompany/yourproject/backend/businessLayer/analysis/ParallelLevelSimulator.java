@@ -0,0 +1,122 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link CompiledCircuitSimulator} that spreads wide levels over a ForkJoin
+ * pool.
+ *
+ * Gates in the same level only read signals of earlier levels and each writes
+ * only its own outputs, so a level can be split into chunks evaluated on
+ * different threads. Levels narrower than the threshold, circuits smaller than
+ * it, and gates evaluated through the model (subcircuits) stay on the calling
+ * thread, as do the gates on feedback loops.
+ */
+public class ParallelLevelSimulator extends CompiledCircuitSimulator {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+    private static final int CHUNK_SIZE = 1024;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelLevelSimulator(CompiledCircuit netlist) {
+        this(netlist, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * @param threshold minimum number of gates in a level before it is split
+     *                  across the pool
+     */
+    public ParallelLevelSimulator(CompiledCircuit netlist, ForkJoinPool pool, int threshold) {
+        super(netlist);
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    // ===== EVALUATION =====
+
+    @Override
+    public int evaluate() {
+        if (netlist.getGateCount() < threshold || pool.getParallelism() < 2) {
+            return super.evaluate();
+        }
+
+        int[] order = netlist.getOrder();
+        int levelCount = netlist.getLevelCount();
+        int acyclicLevels = netlist.isCyclic() ? levelCount - 1 : levelCount;
+
+        for (int level = 0; level < acyclicLevels; level++) {
+            int start = netlist.getLevelStart(level);
+            int end = netlist.getLevelStart(level + 1);
+            if (end - start >= threshold) {
+                pool.invoke(new LevelChunk(order, start, end));
+                evaluateOpaqueGates(order, start, end);
+            } else {
+                for (int i = start; i < end; i++) {
+                    evaluateGate(order[i]);
+                }
+            }
+        }
+
+        if (!netlist.isCyclic()) {
+            return 1;
+        }
+
+        // Feedback loops settle sequentially, as in the single-threaded engine
+        int start = netlist.getLevelStart(acyclicLevels);
+        int end = netlist.getLevelStart(levelCount);
+        int passes = 0;
+        boolean changed;
+        do {
+            changed = false;
+            for (int i = start; i < end; i++) {
+                changed |= evaluateGate(order[i]);
+            }
+            passes++;
+        } while (changed && passes < MAX_PASSES);
+        return passes;
+    }
+
+    private void evaluateOpaqueGates(int[] order, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (netlist.getKind(order[i]) == CompiledCircuit.KIND_OPAQUE) {
+                evaluateGate(order[i]);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the compiled gates of one slice of a level, splitting it in
+     * half until it is small enough
+     */
+    private final class LevelChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int start;
+        private final int end;
+
+        LevelChunk(int[] order, int start, int end) {
+            this.order = order;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= CHUNK_SIZE) {
+                for (int i = start; i < end; i++) {
+                    int gate = order[i];
+                    if (netlist.getKind(gate) != CompiledCircuit.KIND_OPAQUE) {
+                        evaluateGate(gate);
+                    }
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new LevelChunk(order, start, middle), new LevelChunk(order, middle, end));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+
+/**
+ * Results of one {@link ProjectSimulationService#simulate} call, one per
+ * circuit in project order
+ */
+public class ProjectSimulationReport<R> {
+
+    /**
+     * Outcome of the workload of one circuit: its value, or what it threw
+     */
+    public static final class CircuitResult<R> {
+        private final Circuit circuit;
+        private final R value;
+        private final Throwable failure;
+        private final long elapsedNanos;
+
+        private CircuitResult(Circuit circuit, R value, Throwable failure, long elapsedNanos) {
+            this.circuit = circuit;
+            this.value = value;
+            this.failure = failure;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        static <R> CircuitResult<R> success(Circuit circuit, R value, long elapsedNanos) {
+            return new CircuitResult<>(circuit, value, null, elapsedNanos);
+        }
+
+        static <R> CircuitResult<R> failure(Circuit circuit, Throwable failure, long elapsedNanos) {
+            return new CircuitResult<>(circuit, null, failure, elapsedNanos);
+        }
+
+        public Circuit getCircuit() {
+            return circuit;
+        }
+
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        /**
+         * Value returned by the workload, null if it failed
+         */
+        public R getValue() {
+            return value;
+        }
+
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return circuit.getName() + ": " + (failure == null ? "ok" : "failed (" + failure + ")") + " in "
+                    + elapsedNanos / 1_000_000 + " ms";
+        }
+    }
+
+    private final List<CircuitResult<R>> results;
+    private final long elapsedNanos;
+
+    ProjectSimulationReport(List<CircuitResult<R>> results, long elapsedNanos) {
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<CircuitResult<R>> getResults() {
+        return results;
+    }
+
+    /**
+     * Result for a circuit, or null if it was not part of the run
+     */
+    public CircuitResult<R> getResult(Circuit circuit) {
+        for (CircuitResult<R> result : results) {
+            if (result.getCircuit() == circuit) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    public List<CircuitResult<R>> getFailures() {
+        List<CircuitResult<R>> failures = new ArrayList<>();
+        for (CircuitResult<R> result : results) {
+            if (!result.isSuccessful()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    public boolean isSuccessful() {
+        return getFailures().isEmpty();
+    }
+
+    /**
+     * Wall-clock time of the whole run, bounded by the slowest circuit rather
+     * than the sum of all of them when the concurrency cap allows
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Sum of the time each circuit took, as a sequential run would need
+     */
+    public long getTotalCircuitNanos() {
+        long total = 0;
+        for (CircuitResult<R> result : results) {
+            total += result.getElapsedNanos();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,169 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.CircuitSnapshot;
+import org.yourcompany.yourproject.backend.businessLayer.components.Project;
+
+/**
+ * Runs one workload per circuit of a {@link Project} concurrently.
+ *
+ * Circuits of a project are independent, so a whole-project run takes about
+ * as long as its slowest circuit instead of the sum of all of them. Tasks run
+ * on a fixed pool whose size is the global concurrency cap, shared by every
+ * {@link #simulate} call on the service. Each circuit is isolated: a workload
+ * that throws is recorded as that circuit's failure and the others carry on.
+ * A circuit listed twice in a project is simulated once.
+ *
+ * Every circuit is snapshotted on the calling thread before any task starts,
+ * since {@link Circuit#snapshot()} must run on the thread that edits the
+ * circuit and circuits of a project share subcircuit definitions. Workloads
+ * receive that {@link CircuitSnapshot} and should simulate from it, for
+ * example through {@link SimulationSession#of(CircuitSnapshot)},
+ * {@link FlattenedCircuit#flatten(CircuitSnapshot)} or
+ * {@link VectorFileRunner#run(CircuitSnapshot, java.nio.file.Path, java.nio.file.Path, List)},
+ * which keep their state out of the gates. Anything that flattens or
+ * simulates the live {@link Circuit} on a pool thread races with the other
+ * workloads on the shared definitions.
+ */
+public class ProjectSimulationService implements AutoCloseable {
+
+    /**
+     * Work done for one circuit, such as running its vector file. The circuit
+     * is given for identification; the snapshot is what to simulate.
+     */
+    @FunctionalInterface
+    public interface Workload<R> {
+        R run(Circuit circuit, CircuitSnapshot snapshot) throws Exception;
+    }
+
+    private static final AtomicInteger NEXT_POOL = new AtomicInteger(1);
+
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+
+    /**
+     * A service running at most one circuit per available processor
+     */
+    public ProjectSimulationService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ProjectSimulationService(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.executor = Executors.newFixedThreadPool(maxConcurrency, threadFactory());
+    }
+
+    private static ThreadFactory threadFactory() {
+        int pool = NEXT_POOL.getAndIncrement();
+        AtomicInteger nextThread = new AtomicInteger(1);
+        return task -> {
+            Thread thread = new Thread(task, "project-simulation-" + pool + "-" + nextThread.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    // ===== SIMULATION =====
+
+    /**
+     * Run the workload for every circuit of the project and wait for all of
+     * them
+     *
+     * @return one result per distinct circuit, in project order
+     * @throws InterruptedException if interrupted while waiting; circuits not
+     *                              finished yet are cancelled
+     */
+    public <R> ProjectSimulationReport<R> simulate(Project project, Workload<R> workload)
+            throws InterruptedException {
+        return simulate(project.getCircuits(), workload);
+    }
+
+    /**
+     * Run the workload for every circuit in the list and wait for all of them
+     */
+    public <R> ProjectSimulationReport<R> simulate(List<Circuit> circuits, Workload<R> workload)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<Circuit> distinct = distinct(circuits);
+        List<Future<ProjectSimulationReport.CircuitResult<R>>> futures = new ArrayList<>(distinct.size());
+        for (Circuit circuit : distinct) {
+            CircuitSnapshot snapshot;
+            try {
+                snapshot = circuit.snapshot();
+            } catch (IllegalArgumentException e) {
+                futures.add(CompletableFuture.completedFuture(
+                        ProjectSimulationReport.CircuitResult.failure(circuit, e, 0L)));
+                continue;
+            }
+            futures.add(executor.submit(() -> runIsolated(circuit, snapshot, workload)));
+        }
+
+        List<ProjectSimulationReport.CircuitResult<R>> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<ProjectSimulationReport.CircuitResult<R>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            // runIsolated catches everything its workload throws
+            throw new IllegalStateException("Circuit task failed outside its workload", e.getCause());
+        }
+        return new ProjectSimulationReport<>(results, System.nanoTime() - start);
+    }
+
+    private static <R> ProjectSimulationReport.CircuitResult<R> runIsolated(Circuit circuit,
+            CircuitSnapshot snapshot, Workload<R> workload) {
+        long start = System.nanoTime();
+        try {
+            R value = workload.run(circuit, snapshot);
+            return ProjectSimulationReport.CircuitResult.success(circuit, value, System.nanoTime() - start);
+        } catch (Exception | StackOverflowError e) {
+            return ProjectSimulationReport.CircuitResult.failure(circuit, e, System.nanoTime() - start);
+        }
+    }
+
+    private static List<Circuit> distinct(List<Circuit> circuits) {
+        Set<Circuit> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Circuit> distinct = new ArrayList<>(circuits.size());
+        for (Circuit circuit : circuits) {
+            if (circuit != null && seen.add(circuit)) {
+                distinct.add(circuit);
+            }
+        }
+        return distinct;
+    }
+
+    // ===== LIFECYCLE =====
+
+    /**
+     * Stop accepting work; running circuits finish
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
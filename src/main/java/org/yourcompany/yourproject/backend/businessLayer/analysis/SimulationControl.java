@@ -0,0 +1,85 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits for one simulation run: cooperative cancellation, a wall-clock
+ * deadline and a pass limit.
+ *
+ * Simulators poll {@link #check()} between passes, so a run stops within one
+ * pass of {@link #cancel()} being called from another thread, of the deadline
+ * passing, or of the running thread being interrupted. As a
+ * {@link BooleanSupplier} it can also be handed to model-level loops that do
+ * not know about this package.
+ */
+public class SimulationControl implements BooleanSupplier {
+
+    private volatile boolean cancelled;
+    private long deadline;
+    private boolean hasDeadline;
+    private int passLimit = Integer.MAX_VALUE;
+
+    /**
+     * Control with no deadline and no pass limit; oscillations are still
+     * detected
+     */
+    public SimulationControl() {
+    }
+
+    public SimulationControl(Duration timeout) {
+        setTimeout(timeout);
+    }
+
+    // ===== CONFIGURATION =====
+
+    /**
+     * Stop runs once this much wall-clock time has passed from now
+     */
+    public void setTimeout(Duration timeout) {
+        this.deadline = System.nanoTime() + timeout.toNanos();
+        this.hasDeadline = true;
+    }
+
+    public void setPassLimit(int passes) {
+        this.passLimit = Math.max(1, passes);
+    }
+
+    public int getPassLimit() {
+        return passLimit;
+    }
+
+    // ===== CANCELLATION =====
+
+    /**
+     * Ask every run using this control to stop; safe to call from any thread
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Reason to stop now, or null to keep going
+     */
+    public ConvergenceReport.Status check() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            return ConvergenceReport.Status.CANCELLED;
+        }
+        if (hasDeadline && System.nanoTime() - deadline > 0) {
+            return ConvergenceReport.Status.DEADLINE_EXCEEDED;
+        }
+        return null;
+    }
+
+    /**
+     * True when the run should stop
+     */
+    @Override
+    public boolean getAsBoolean() {
+        return check() != null;
+    }
+}
@@ -0,0 +1,228 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.CircuitSnapshot;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+
+/**
+ * Repeated simulation of one circuit through integer port handles.
+ *
+ * {@link CircuitLogicSimulator#run} looks every input up by name and returns a
+ * new map of boxed outputs on each call. A session resolves names once into
+ * handles and keeps one simulator over the flattened circuit, so setting
+ * inputs, evaluating and reading outputs neither builds strings nor allocates.
+ * An input handle is an external input of the flat netlist; an output handle
+ * is the flat signal carrying a gate output.
+ *
+ * Signals persist between evaluations, which is what a clocked or cyclic
+ * circuit needs; call {@link #reset()} to start from a cleared circuit as
+ * {@code run} does. Nothing is written to the gates until {@link #writeBack()}.
+ * Create a new session after editing the circuit. A session is not thread
+ * safe.
+ */
+public class SimulationSession {
+
+    private final FlattenedCircuit flat;
+    private final CompiledCircuit netlist;
+    private final CompiledCircuitSimulator simulator;
+
+    public SimulationSession(FlattenedCircuit flat) {
+        this.flat = flat;
+        this.netlist = flat.getNetlist();
+        this.simulator = new ParallelLevelSimulator(netlist);
+    }
+
+    public static SimulationSession of(Circuit circuit) {
+        return new SimulationSession(FlattenedCircuit.of(circuit));
+    }
+
+    /**
+     * Session over a snapshot, which may be built on a background thread while
+     * the circuit is being edited
+     */
+    public static SimulationSession of(CircuitSnapshot snapshot) {
+        return new SimulationSession(FlattenedCircuit.flatten(snapshot));
+    }
+
+    // ===== HANDLE RESOLUTION =====
+
+    /**
+     * @param name input named gate + "_in" + port, as in
+     *             {@link CircuitLogicSimulator#run}
+     * @throws IllegalArgumentException if the circuit has no such input
+     */
+    public int inputHandle(String name) {
+        for (int input = 0; input < netlist.getInputCount(); input++) {
+            if (netlist.getInputName(input).equals(name)) {
+                return input;
+            }
+        }
+        throw new IllegalArgumentException("Not a circuit input: " + name);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the port is not an external input
+     */
+    public int inputHandle(GateComponent gate, int port) {
+        for (int input = 0; input < netlist.getInputCount(); input++) {
+            if (netlist.getInputGate(input) == gate && netlist.getInputPort(input) == port) {
+                return input;
+            }
+        }
+        throw new IllegalArgumentException("Not a circuit input: " + gate.getName() + "_in" + port);
+    }
+
+    /**
+     * Output 0 of the top-level gate with the given name; the last such gate
+     * wins, as in the map returned by {@link CircuitLogicSimulator#run}
+     *
+     * @throws IllegalArgumentException if no gate with an output has the name
+     */
+    public int outputHandle(String gateName) {
+        int handle = flat.getOutputSignal(gateName);
+        if (handle < 0) {
+            throw new IllegalArgumentException("No gate output named: " + gateName);
+        }
+        return handle;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the gate is not in the top-level
+     *                                  circuit or has no such output
+     */
+    public int outputHandle(GateComponent gate, int port) {
+        int signal = flat.getOutputSignal(gate, port);
+        if (signal < 0) {
+            throw new IllegalArgumentException("No output " + port + " on gate " + gate.getName());
+        }
+        return signal;
+    }
+
+    public int[] inputHandles(List<String> names) {
+        int[] handles = new int[names.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = inputHandle(names.get(i));
+        }
+        return handles;
+    }
+
+    public int[] outputHandles(List<String> gateNames) {
+        int[] handles = new int[gateNames.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = outputHandle(gateNames.get(i));
+        }
+        return handles;
+    }
+
+    public FlattenedCircuit getFlattenedCircuit() {
+        return flat;
+    }
+
+    /**
+     * False once a circuit in the hierarchy changed, after which the handles
+     * no longer describe it
+     */
+    public boolean isCurrent() {
+        return flat.isCurrent();
+    }
+
+    // ===== INPUTS =====
+
+    public void setInput(int handle, boolean value) {
+        simulator.setInput(handle, value);
+    }
+
+    /**
+     * Set input handles[i] to values[i]
+     */
+    public void setInputs(int[] handles, boolean[] values) {
+        for (int i = 0; i < handles.length; i++) {
+            simulator.setInput(handles[i], values[i]);
+        }
+    }
+
+    /**
+     * Set input handles[i] to bit i of values
+     */
+    public void setInputs(int[] handles, BitSet values) {
+        for (int i = 0; i < handles.length; i++) {
+            simulator.setInput(handles[i], values.get(i));
+        }
+    }
+
+    /**
+     * Set input handles[i] to bit i of a word, for up to 64 handles
+     */
+    public void setInputs(int[] handles, long bits) {
+        for (int i = 0; i < handles.length; i++) {
+            simulator.setInput(handles[i], ((bits >>> i) & 1L) != 0);
+        }
+    }
+
+    // ===== EVALUATION =====
+
+    /**
+     * @return the number of passes over the evaluation order
+     */
+    public int evaluate() {
+        return simulator.evaluate();
+    }
+
+    public ConvergenceReport evaluate(SimulationControl control) {
+        return simulator.evaluate(control);
+    }
+
+    /**
+     * Clear every signal, inputs included
+     */
+    public void reset() {
+        simulator.reset();
+    }
+
+    /**
+     * Copy the current signals into the gates, as {@code run} does
+     */
+    public void writeBack() {
+        flat.writeBack(simulator);
+    }
+
+    // ===== OUTPUTS =====
+
+    public boolean getOutput(int handle) {
+        return simulator.getSignal(handle);
+    }
+
+    /**
+     * Store output handles[i] in into[i]
+     */
+    public void getOutputs(int[] handles, boolean[] into) {
+        for (int i = 0; i < handles.length; i++) {
+            into[i] = simulator.getSignal(handles[i]);
+        }
+    }
+
+    /**
+     * Store output handles[i] in bit i of into
+     */
+    public void getOutputs(int[] handles, BitSet into) {
+        for (int i = 0; i < handles.length; i++) {
+            into.set(i, simulator.getSignal(handles[i]));
+        }
+    }
+
+    /**
+     * Output handles[i] in bit i, for up to 64 handles
+     */
+    public long getOutputs(int[] handles) {
+        long bits = 0L;
+        for (int i = 0; i < handles.length; i++) {
+            if (simulator.getSignal(handles[i])) {
+                bits |= 1L << i;
+            }
+        }
+        return bits;
+    }
+}
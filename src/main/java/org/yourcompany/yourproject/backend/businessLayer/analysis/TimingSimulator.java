@@ -0,0 +1,365 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+
+/**
+ * Discrete-event timing simulation of a {@link CompiledCircuit}.
+ *
+ * Every gate kind has a propagation delay in ticks. A gate whose input changed
+ * at time t schedules its new output value for t + delay (transport delay),
+ * so short pulses and glitches travel through the circuit. Pending events
+ * live in a timing wheel: one slot per tick, sized above the largest delay,
+ * with events kept in pooled int arrays so scheduling does not allocate.
+ */
+public class TimingSimulator extends CompiledCircuitSimulator {
+
+    public static final int WHEEL_SIZE = 1024;
+    public static final long DEFAULT_TIME_LIMIT = 1_000_000L;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    // Delay per gate kind, indexed by the CompiledCircuit.KIND_* constants
+    private final int[] kindDelay = { 2, 2, 1, 1, 5 };
+    private long timeLimit = DEFAULT_TIME_LIMIT;
+
+    // Timing wheel: per-slot FIFO of events in a pooled singly linked list
+    private final int[] slotHead = new int[WHEEL_SIZE];
+    private final int[] slotTail = new int[WHEEL_SIZE];
+    private int[] eventNext = new int[64];
+    private int[] eventSignal = new int[64];
+    private boolean[] eventValue = new boolean[64];
+    private int freeEvent = -1;
+    private int eventTop;
+    private int pendingEvents;
+
+    private final boolean[] projected;
+    private final boolean[] watched;
+    private final int[] transitions;
+    private final int[] touchedGates;
+    private final boolean[] touched;
+    private final boolean[] gateOutputs;
+    private long now;
+
+    public TimingSimulator(CompiledCircuit netlist) {
+        super(netlist);
+        int signalCount = netlist.getSignalCount();
+        this.projected = new boolean[signalCount];
+        this.watched = new boolean[signalCount];
+        this.transitions = new int[signalCount];
+        this.touchedGates = new int[netlist.getGateCount()];
+        this.touched = new boolean[netlist.getGateCount()];
+
+        int maxOutputs = 0;
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            maxOutputs = Math.max(maxOutputs, netlist.getOutputCount(gate));
+        }
+        this.gateOutputs = new boolean[maxOutputs];
+        Arrays.fill(slotHead, -1);
+        evaluate();
+    }
+
+    // ===== CONFIGURATION =====
+
+    /**
+     * Set the propagation delay of one gate kind, in ticks. Delays are at least
+     * one tick so feedback loops always advance time.
+     */
+    public void setDelay(byte kind, int ticks) {
+        if (ticks < 1 || ticks >= WHEEL_SIZE) {
+            throw new IllegalArgumentException("Delay must be between 1 and " + (WHEEL_SIZE - 1) + ": " + ticks);
+        }
+        kindDelay[kind] = ticks;
+    }
+
+    public int getDelay(byte kind) {
+        return kindDelay[kind];
+    }
+
+    /**
+     * Stop a run after this many ticks without settling (ring oscillators)
+     */
+    public void setTimeLimit(long ticks) {
+        this.timeLimit = ticks;
+    }
+
+    /**
+     * Track transitions of a signal so glitches on it are reported
+     */
+    public void watch(int signal) {
+        watched[signal] = true;
+    }
+
+    public void watchOutput(int gate, int port) {
+        watch(netlist.getOutputSignal(gate, port));
+    }
+
+    public long getTime() {
+        return now;
+    }
+
+    // ===== STIMULUS =====
+
+    /**
+     * Zero-delay settle of the current inputs, used as the steady state that
+     * timed input changes start from. Pending events are dropped.
+     */
+    @Override
+    public int evaluate() {
+        int passes = super.evaluate();
+        System.arraycopy(signals, 0, projected, 0, signals.length);
+        clearWheel();
+        return passes;
+    }
+
+    /**
+     * Schedule an input change at the current time; call {@link #run()} to
+     * simulate its effect
+     */
+    @Override
+    public void setInput(int input, boolean value) {
+        if (projected[input] != value) {
+            schedule(now, input, value);
+        }
+    }
+
+    // ===== SIMULATION =====
+
+    /**
+     * Process events until the circuit is quiet or the time limit is hit
+     */
+    public TimingResult run() {
+        long start = now;
+        long lastChange = now;
+        long deadline = now + timeLimit;
+        int events = 0;
+        Arrays.fill(transitions, 0);
+
+        while (pendingEvents > 0) {
+            if (now > deadline) {
+                clearWheel();
+                return buildResult(start, lastChange, events, false);
+            }
+
+            int slot = (int) (now & WHEEL_MASK);
+            // Gate events always land in a later slot, so one drain per tick is enough
+            if (slotHead[slot] != -1) {
+                int touchedCount = 0;
+                int event = slotHead[slot];
+                slotHead[slot] = -1;
+
+                while (event != -1) {
+                    int signal = eventSignal[event];
+                    boolean value = eventValue[event];
+                    int next = eventNext[event];
+                    releaseEvent(event);
+                    event = next;
+                    events++;
+
+                    if (signals[signal] == value) {
+                        continue;
+                    }
+                    signals[signal] = value;
+                    transitions[signal]++;
+                    lastChange = now;
+
+                    for (int i = netlist.getFanoutStart(signal); i < netlist.getFanoutEnd(signal); i++) {
+                        int reader = netlist.getFanoutGate(i);
+                        if (!touched[reader]) {
+                            touched[reader] = true;
+                            touchedGates[touchedCount++] = reader;
+                        }
+                    }
+                }
+
+                for (int i = 0; i < touchedCount; i++) {
+                    int gate = touchedGates[i];
+                    touched[gate] = false;
+                    scheduleGate(gate);
+                }
+            }
+
+            if (pendingEvents > 0) {
+                now++;
+            }
+        }
+        return buildResult(start, lastChange, events, true);
+    }
+
+    private void scheduleGate(int gate) {
+        int outputs = netlist.getOutputCount(gate);
+        if (outputs == 0) {
+            return;
+        }
+        computeGate(gate);
+        long time = now + kindDelay[netlist.getKind(gate)];
+        for (int port = 0; port < outputs; port++) {
+            int signal = netlist.getOutputSignal(gate, port);
+            if (projected[signal] != gateOutputs[port]) {
+                schedule(time, signal, gateOutputs[port]);
+            }
+        }
+    }
+
+    /**
+     * Output values of a gate for the current signals, into gateOutputs
+     */
+    private void computeGate(int gate) {
+        int start = netlist.getFaninStart(gate);
+        int end = netlist.getFaninEnd(gate);
+
+        switch (netlist.getKind(gate)) {
+            case CompiledCircuit.KIND_AND: {
+                boolean value = true;
+                for (int i = start; i < end && value; i++) {
+                    value = signals[netlist.getFaninSignal(i)];
+                }
+                gateOutputs[0] = value;
+                break;
+            }
+            case CompiledCircuit.KIND_OR: {
+                boolean value = false;
+                for (int i = start; i < end && !value; i++) {
+                    value = signals[netlist.getFaninSignal(i)];
+                }
+                gateOutputs[0] = value;
+                break;
+            }
+            case CompiledCircuit.KIND_NOT:
+                gateOutputs[0] = start == end || !signals[netlist.getFaninSignal(start)];
+                break;
+            default: {
+                GateComponent component = netlist.getGate(gate);
+                for (int i = start; i < end; i++) {
+                    component.assignInputBit(i - start, signals[netlist.getFaninSignal(i)]);
+                }
+                component.evaluateInPlace();
+                for (int port = 0; port < netlist.getOutputCount(gate); port++) {
+                    gateOutputs[port] = component.getOutputBit(port);
+                }
+            }
+        }
+    }
+
+    private TimingResult buildResult(long start, long lastChange, int events, boolean settled) {
+        List<Integer> glitches = new ArrayList<>();
+        int[] watchedTransitions = new int[signals.length];
+        for (int signal = 0; signal < signals.length; signal++) {
+            if (watched[signal]) {
+                watchedTransitions[signal] = transitions[signal];
+                if (transitions[signal] > 1) {
+                    glitches.add(signal);
+                }
+            }
+        }
+        return new TimingResult(lastChange - start, events, settled, glitches, watchedTransitions);
+    }
+
+    // ===== TIMING WHEEL =====
+
+    private void schedule(long time, int signal, boolean value) {
+        int event = allocateEvent();
+        int slot = (int) (time & WHEEL_MASK);
+        eventSignal[event] = signal;
+        eventValue[event] = value;
+        eventNext[event] = -1;
+        if (slotHead[slot] == -1) {
+            slotHead[slot] = event;
+        } else {
+            eventNext[slotTail[slot]] = event;
+        }
+        slotTail[slot] = event;
+        projected[signal] = value;
+        pendingEvents++;
+    }
+
+    private int allocateEvent() {
+        if (freeEvent != -1) {
+            int event = freeEvent;
+            freeEvent = eventNext[event];
+            return event;
+        }
+        if (eventTop == eventNext.length) {
+            int capacity = eventNext.length * 2;
+            eventNext = Arrays.copyOf(eventNext, capacity);
+            eventSignal = Arrays.copyOf(eventSignal, capacity);
+            eventValue = Arrays.copyOf(eventValue, capacity);
+        }
+        return eventTop++;
+    }
+
+    private void releaseEvent(int event) {
+        eventNext[event] = freeEvent;
+        freeEvent = event;
+        pendingEvents--;
+    }
+
+    private void clearWheel() {
+        Arrays.fill(slotHead, -1);
+        freeEvent = -1;
+        eventTop = 0;
+        pendingEvents = 0;
+        System.arraycopy(signals, 0, projected, 0, signals.length);
+    }
+
+    // ===== RESULTS =====
+
+    /**
+     * Outcome of one {@link #run()}
+     */
+    public static class TimingResult {
+        private final long settleTime;
+        private final int events;
+        private final boolean settled;
+        private final List<Integer> glitches;
+        private final int[] transitions;
+
+        TimingResult(long settleTime, int events, boolean settled, List<Integer> glitches, int[] transitions) {
+            this.settleTime = settleTime;
+            this.events = events;
+            this.settled = settled;
+            this.glitches = Collections.unmodifiableList(glitches);
+            this.transitions = transitions;
+        }
+
+        /**
+         * Ticks from the stimulus to the last signal change
+         */
+        public long getSettleTime() {
+            return settleTime;
+        }
+
+        public int getEventCount() {
+            return events;
+        }
+
+        /**
+         * False if the run was cut off by the time limit
+         */
+        public boolean isSettled() {
+            return settled;
+        }
+
+        /**
+         * Watched signals that changed more than once during the run
+         */
+        public List<Integer> getGlitches() {
+            return glitches;
+        }
+
+        public boolean hasGlitches() {
+            return !glitches.isEmpty();
+        }
+
+        /**
+         * Number of value changes of a watched signal during the run
+         */
+        public int getTransitions(int signal) {
+            return transitions[signal];
+        }
+    }
+}
@@ -7,281 +7,125 @@ import java.util.List;
 import java.util.Map;
 
 import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
-import org.yourcompany.yourproject.backend.businessLayer.components.Connector;
 import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
-import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.SimulationTrace;
 
 /**
  * Enhanced truth table generator that handles hierarchical circuits
  */
 public class TruthTableGen {
 
+    /** Widest circuit whose table still fits in a list: 2^30 rows */
+    public static final int MAX_INPUTS = 30;
+
     // ===== MAIN PUBLIC INTERFACE =====
 
     /**
-     * Generates truth table by directly simulating the circuit for all input
-     * combinations
+     * Generates truth table by simulating the circuit for all input combinations,
+     * 64 combinations per bit-parallel pass
      */
     public List<TruthTableRow> truthTableGenFun(Circuit circuit) {
-        System.out.println("=== ENHANCED TRUTH TABLE GENERATION (Hierarchical Support) ===");
+        SimulationControl control = new SimulationControl();
+        control.setPassLimit(CompiledCircuitSimulator.MAX_PASSES);
+        return truthTableGenFun(circuit, control);
+    }
 
-        // 1. Find all input ports (unconnected gate inputs)
-        List<CircuitInputTerminal> inputPorts = locateInputPorts(circuit);
-        System.out.println("Input ports: " + inputPorts);
+    /**
+     * Generates the truth table under the limits of a control. Rows of inputs
+     * on which the circuit oscillates are kept with the state at detection.
+     *
+     * @throws NonConvergenceException  if the control cancelled generation or its
+     *                                  deadline passed
+     * @throws IllegalArgumentException if the circuit has more than
+     *                                  {@link #MAX_INPUTS} inputs
+     */
+    public List<TruthTableRow> truthTableGenFun(Circuit circuit, SimulationControl control) {
+        // 1. Flatten the hierarchy into one netlist; its external inputs are the
+        // unconnected gate inputs of the top-level circuit
+        FlattenedCircuit flat = FlattenedCircuit.flatten(circuit);
+        CompiledCircuit netlist = flat.getNetlist();
+        List<CircuitInputTerminal> inputPorts = locateInputPorts(netlist);
 
         if (inputPorts.isEmpty()) {
-            System.out.println("No input ports found!");
             return new ArrayList<>();
         }
 
-        // 2. Get all gate names for outputs (show everything)
-        List<String> allGateNames = getAllGates(circuit);
-        System.out.println("All gates: " + allGateNames);
-
-        // 3. Generate all input combinations
-        List<TruthTableRow> table = new ArrayList<>();
+        // 2. Simulate all input combinations, one 64-row block at a time
         int inputCount = inputPorts.size();
-        int combinations = (int) Math.pow(2, inputCount);
+        if (inputCount > MAX_INPUTS) {
+            throw new IllegalArgumentException("Truth table of " + inputCount + " inputs exceeds the limit of "
+                    + MAX_INPUTS);
+        }
+        int combinations = 1 << inputCount;
 
-        System.out.println("Generating " + combinations + " combinations");
+        PackedTruthTable packed = new PackedTruthTable(circuit, flat, inputPorts, combinations);
+        simulateCircuit(new BitParallelSimulator(netlist), packed, control);
 
+        List<TruthTableRow> table = new ArrayList<>(combinations);
         for (int i = 0; i < combinations; i++) {
-            System.out.println("\n--- Combination " + i + " ---");
-
-            // Reset circuit (including hierarchical circuits)
-            clearAllGateStates(circuit);
-
-            // Apply inputs
-            Map<String, Boolean> inputs = assignInputCombo(inputPorts, i);
-            System.out.println("Inputs: " + inputs);
-
-            // DEBUG: Show state after input application
-            debugCircuitState(circuit, "AFTER INPUT APPLICATION");
-
-            // Simulate circuit (with hierarchical support)
-            simulateCircuit(circuit);
-
-            // DEBUG: Show final state after simulation
-            debugCircuitState(circuit, "FINAL STATE");
-
-            // Collect outputs from all gates
-            Map<String, Boolean> outputs = storeAllOutput(circuit, allGateNames);
-            System.out.println("Outputs: " + outputs);
-
-            table.add(new TruthTableRow(inputs, outputs));
+            table.add(new TruthTableRow(packed, i));
         }
 
-        // Print with circuit order
-        showTablle(table, circuit);
-
+        // Printing is up to the caller, see showTablle
         return table;
     }
 
     // ===== CIRCUIT SIMULATION LOGIC =====
 
     /**
-     * Enhanced circuit simulation that handles hierarchical circuits
+     * Run every block of 64 combinations and keep the packed output words
      */
-    private void simulateCircuit(Circuit circuit) {
-        boolean changed;
-        int maxIterations = 100; // Increased for complex circuits
-        int iterations = 0;
-
-        do {
-            changed = false;
-
-            // 1. First propagate signals through wires to update gate inputs
-            changed |= propagateSignals(circuit);
-
-            // 2. Then evaluate all gates to compute new outputs
-            for (GateComponent gate : circuit.getGates()) {
-                boolean[] oldOutputs = new boolean[gate.getOutputs()];
-                for (int i = 0; i < gate.getOutputs(); i++) {
-                    oldOutputs[i] = gate.getOutputVal(i);
-                }
-
-                evaluateGate(gate);
-
-                // Check if outputs changed
-                for (int i = 0; i < gate.getOutputs(); i++) {
-                    if (oldOutputs[i] != gate.getOutputVal(i)) {
-                        changed = true;
-                    }
-                }
-            }
-
-            iterations++;
-            if (iterations > maxIterations) {
-                System.out.println("Warning: Simulation exceeded maximum iterations");
-                break;
+    private void simulateCircuit(BitParallelSimulator simulator, PackedTruthTable packed,
+            SimulationControl control) {
+        CompiledCircuit netlist = simulator.getNetlist();
+        int blocks = packed.getBlockCount();
+
+        for (int block = 0; block < blocks; block++) {
+            // Circuits with feedback keep state, so every block starts from cleared state
+            if (netlist.isCyclic()) {
+                simulator.reset();
             }
-
-        } while (changed);
-
-        System.out.println("Circuit simulation completed in " + iterations + " iterations");
-    }
-
-    /**
-     * Enhanced gate evaluation that handles CircuitComponent
-     */
-    private void evaluateGate(GateComponent gate) {
-        String gateType = gate.getClass().getSimpleName();
-
-        if (gate instanceof SubcircuitComponent) {
-            // Handle CircuitComponent - let it evaluate its internal circuit
-            SubcircuitComponent circuitComp = (SubcircuitComponent) gate;
-            System.out.println("  Evaluating CircuitComponent: " + circuitComp.getCircuitName());
-
-            // The CircuitComponent will handle its own internal evaluation
-            gate.evaluate();
-
-        } else {
-            // Handle basic gates - USE THE GATE'S OWN EVALUATE METHOD
-            gate.evaluate();
-
-            System.out.println("  " + gate.getName() + " (" + gateType + ") -> " + gate.getOutputVal(0) +
-                    " [inputs: " + formatInputValues(gate) + "]");
-        }
-    }
-
-    /**
-     * Propagate signals through all wires in the circuit
-     */
-    private boolean propagateSignals(Circuit circuit) {
-        boolean changed = false;
-        for (Connector wire : circuit.getWires()) {
-            GateComponent fromGate = wire.getFromGate();
-            GateComponent toGate = wire.getToGate();
-            int fromPort = wire.getSourcePortIndex();
-            int toPort = wire.getDestinationPortIndex();
-
-            if (fromGate != null && toGate != null) {
-                boolean signalValue = fromGate.getOutputVal(fromPort);
-                boolean oldValue = toGate.getInputVal(toPort);
-
-                // Only update if value changed
-                if (oldValue != signalValue) {
-                    toGate.setInputVal(toPort, signalValue);
-                    changed = true;
-                    System.out.println("  Propagating: " + fromGate.getName() + "[" + fromPort + "](" + signalValue +
-                            ") -> " + toGate.getName() + "[" + toPort + "]");
-                }
+            for (int input = 0; input < netlist.getInputCount(); input++) {
+                simulator.setInputWord(input, BitParallelSimulator.exhaustivePattern(input, block));
             }
-        }
-        return changed;
-    }
-
-    // ===== CIRCUIT ANALYSIS UTILITIES =====
-
-    private List<CircuitInputTerminal> locateInputPorts(Circuit circuit) {
-        List<CircuitInputTerminal> inputPorts = new ArrayList<>();
-
-        for (GateComponent gate : circuit.getGates()) {
-            for (int port = 0; port < gate.getInputs(); port++) {
-                if (!isInputConnected(circuit, gate, port)) {
-                    inputPorts.add(new CircuitInputTerminal(gate, port));
+            ConvergenceReport report = simulator.evaluate(control);
+            if (report.isAborted()) {
+                if (SimulationTrace.isEnabled()) {
+                    SimulationTrace.dump(System.err, packed.circuit);
                 }
+                throw new NonConvergenceException(report);
             }
-        }
-
-        return inputPorts;
-    }
-
-    private boolean isInputConnected(Circuit circuit, GateComponent gate, int port) {
-        for (Connector wire : circuit.getWires()) {
-            if (wire.getToGate() == gate && wire.getDestinationPortIndex() == port) {
-                return true;
+            if (report.getStatus() == ConvergenceReport.Status.OSCILLATING) {
+                traceOscillation(netlist, report, block);
             }
+            SimulationTrace.record(SimulationTrace.BLOCK, null, 0, false, false, block);
+            packed.storeBlock(simulator, block);
         }
-        return false;
-    }
-
-    private List<String> getAllGates(Circuit circuit) {
-        List<String> names = new ArrayList<>();
-        for (GateComponent gate : circuit.getGates()) {
-            names.add(gate.getName());
-        }
-        return names;
     }
 
-    // ===== CIRCUIT STATE MANAGEMENT =====
-
-    /**
-     * Enhanced reset that handles hierarchical circuits
-     */
-    private void clearAllGateStates(Circuit circuit) {
-        for (GateComponent gate : circuit.getGates()) {
-            // Reset inputs
-            for (int i = 0; i < gate.getInputs(); i++) {
-                gate.setInputVal(i, false);
-            }
-            // Reset outputs
-            for (int i = 0; i < gate.getOutputs(); i++) {
-                gate.setOutputVal(i, false);
-            }
-
-            // If it's a CircuitComponent, reset its internal circuit too
-            if (gate instanceof SubcircuitComponent) {
-                SubcircuitComponent circuitComp = (SubcircuitComponent) gate;
-                Circuit internalCircuit = circuitComp.getReferencedCircuit();
-                if (internalCircuit != null) {
-                    resetInternalCircuit(internalCircuit);
-                }
-            }
+    private static void traceOscillation(CompiledCircuit netlist, ConvergenceReport report, int block) {
+        if (!SimulationTrace.isEnabled()) {
+            return;
         }
-    }
-
-    /**
-     * Recursively reset internal circuits
-     */
-    private void resetInternalCircuit(Circuit circuit) {
-        for (GateComponent gate : circuit.getGates()) {
-            // Reset inputs
-            for (int i = 0; i < gate.getInputs(); i++) {
-                gate.setInputVal(i, false);
-            }
-            // Reset outputs
-            for (int i = 0; i < gate.getOutputs(); i++) {
-                gate.setOutputVal(i, false);
-            }
-
-            // Recursively reset any nested CircuitComponents
-            if (gate instanceof SubcircuitComponent) {
-                SubcircuitComponent circuitComp = (SubcircuitComponent) gate;
-                Circuit internalCircuit = circuitComp.getReferencedCircuit();
-                if (internalCircuit != null) {
-                    resetInternalCircuit(internalCircuit);
-                }
+        for (int signal : report.getOscillatingSignals()) {
+            int gate = netlist.getDriverGate(signal);
+            if (gate >= 0) {
+                SimulationTrace.record(SimulationTrace.OSCILLATION, netlist.getGate(gate),
+                        signal - netlist.getOutputSignal(gate, 0), false, true, block);
             }
         }
     }
 
-    private Map<String, Boolean> assignInputCombo(List<CircuitInputTerminal> inputPorts, int combination) {
-        Map<String, Boolean> inputs = new HashMap<>();
-
-        for (int i = 0; i < inputPorts.size(); i++) {
-            CircuitInputTerminal port = inputPorts.get(i);
-            boolean value = ((combination >> i) & 1) == 1;
-
-            // Set the input value on the gate - USE setInputValue NOT setInputValueDirect
-            port.gate.setInputVal(port.portIndex, value);
-            inputs.put(port.name, value);
-        }
-
-        return inputs;
-    }
+    // ===== CIRCUIT ANALYSIS UTILITIES =====
 
-    private Map<String, Boolean> storeAllOutput(Circuit circuit, List<String> gateNames) {
-        Map<String, Boolean> outputs = new HashMap<>();
+    private List<CircuitInputTerminal> locateInputPorts(CompiledCircuit netlist) {
+        List<CircuitInputTerminal> inputPorts = new ArrayList<>();
 
-        for (String gateName : gateNames) {
-            GateComponent gate = findGateByName(circuit, gateName);
-            if (gate != null && gate.getOutputs() > 0) {
-                outputs.put(gateName, gate.getOutputVal(0));
-            }
+        for (int input = 0; input < netlist.getInputCount(); input++) {
+            inputPorts.add(new CircuitInputTerminal(netlist.getInputGate(input), netlist.getInputPort(input)));
         }
 
-        return outputs;
+        return inputPorts;
     }
 
     // ===== OUTPUT AND DISPLAY METHODS =====
@@ -289,26 +133,40 @@ public class TruthTableGen {
     public static class TruthTableRow {
         private final Map<String, Boolean> inputs;
         private final Map<String, Boolean> outputs;
+        private final PackedTruthTable packed;
+        private final int row;
 
         public TruthTableRow(Map<String, Boolean> inputs, Map<String, Boolean> outputs) {
             this.inputs = inputs;
             this.outputs = outputs;
+            this.packed = null;
+            this.row = -1;
+        }
+
+        /**
+         * Row view over a packed table; the maps are only built when asked for
+         */
+        private TruthTableRow(PackedTruthTable packed, int row) {
+            this.inputs = null;
+            this.outputs = null;
+            this.packed = packed;
+            this.row = row;
         }
 
         public Map<String, Boolean> getInputs() {
-            return new HashMap<>(inputs);
+            return packed != null ? packed.inputMap(row) : new HashMap<>(inputs);
         }
 
         public Map<String, Boolean> getOutputs() {
-            return new HashMap<>(outputs);
+            return packed != null ? packed.outputMap(row) : new HashMap<>(outputs);
         }
 
         public boolean getInput(String name) {
-            return inputs.getOrDefault(name, false);
+            return packed != null ? packed.getInput(row, name) : inputs.getOrDefault(name, false);
         }
 
         public boolean getOutput(String name) {
-            return outputs.getOrDefault(name, false);
+            return packed != null ? packed.getOutput(row, name) : outputs.getOrDefault(name, false);
         }
     }
 
@@ -387,49 +245,92 @@ public class TruthTableGen {
         return outputNames;
     }
 
-    // ===== HELPER METHODS =====
+    // ===== INNER CLASSES =====
+
+    /**
+     * Whole truth table in packed form: row r has input i equal to bit i of r,
+     * and each output gate keeps one bit per row in a long[] of 64-row blocks
+     */
+    private static final class PackedTruthTable {
+        private final Circuit circuit;
+        private final String[] inputNames;
+        private final Map<String, Integer> inputIndex = new HashMap<>();
+        private final String[] outputNames;
+        private final Map<String, Integer> outputIndex = new HashMap<>();
+        private final int[] outputSignals;
+        private final long[][] outputWords;
+
+        PackedTruthTable(Circuit circuit, FlattenedCircuit flat, List<CircuitInputTerminal> inputPorts,
+                int combinations) {
+            this.circuit = circuit;
+            inputNames = new String[inputPorts.size()];
+            for (int i = 0; i < inputNames.length; i++) {
+                inputNames[i] = inputPorts.get(i).name;
+                inputIndex.put(inputNames[i], i);
+            }
+
+            // Output 0 of every top-level gate that has outputs, subcircuits
+            // included; the first gate wins on duplicate names
+            List<String> names = new ArrayList<>();
+            List<Integer> signals = new ArrayList<>();
+            for (GateComponent gate : circuit.getGates()) {
+                int signal = flat.getOutputSignal(gate, 0);
+                if (signal >= 0 && !outputIndex.containsKey(gate.getName())) {
+                    outputIndex.put(gate.getName(), names.size());
+                    names.add(gate.getName());
+                    signals.add(signal);
+                }
+            }
+            outputNames = names.toArray(new String[0]);
+            outputSignals = new int[signals.size()];
+            for (int o = 0; o < outputSignals.length; o++) {
+                outputSignals[o] = signals.get(o);
+            }
 
-    private String formatInputValues(GateComponent gate) {
-        List<String> inputValues = new ArrayList<>();
-        for (int i = 0; i < gate.getInputs(); i++) {
-            inputValues.add(gate.getInputVal(i) ? "1" : "0");
+            int blocks = (combinations + BitParallelSimulator.LANES - 1) / BitParallelSimulator.LANES;
+            outputWords = new long[outputSignals.length][blocks];
         }
-        return String.join(",", inputValues);
-    }
 
-    private GateComponent findGateByName(Circuit circuit, String name) {
-        for (GateComponent gate : circuit.getGates()) {
-            if (gate.getName().equals(name)) {
-                return gate;
+        int getBlockCount() {
+            return outputWords.length > 0 ? outputWords[0].length : 0;
+        }
+
+        void storeBlock(BitParallelSimulator simulator, int block) {
+            for (int o = 0; o < outputSignals.length; o++) {
+                outputWords[o][block] = simulator.getWord(outputSignals[o]);
             }
         }
-        return null;
-    }
 
-    // ===== DEBUG METHODS =====
+        boolean getInput(int row, String name) {
+            Integer index = inputIndex.get(name);
+            return index != null && ((row >>> index) & 1) == 1;
+        }
 
-    private void debugCircuitState(Circuit circuit, String combinationInfo) {
-        System.out.println("=== DEBUG: " + combinationInfo + " ===");
-        for (GateComponent gate : circuit.getGates()) {
-            System.out.print(gate.getName() + " (" + gate.getClass().getSimpleName() + ") - ");
-            System.out.print("Inputs: [");
-            for (int i = 0; i < gate.getInputs(); i++) {
-                System.out.print(gate.getInputVal(i) ? "1" : "0");
-                if (i < gate.getInputs() - 1)
-                    System.out.print(", ");
+        boolean getOutput(int row, String name) {
+            Integer index = outputIndex.get(name);
+            return index != null && outputBit(index, row);
+        }
+
+        Map<String, Boolean> inputMap(int row) {
+            Map<String, Boolean> inputs = new HashMap<>();
+            for (int i = 0; i < inputNames.length; i++) {
+                inputs.put(inputNames[i], ((row >>> i) & 1) == 1);
             }
-            System.out.print("] Outputs: [");
-            for (int i = 0; i < gate.getOutputs(); i++) {
-                System.out.print(gate.getOutputVal(i) ? "1" : "0");
-                if (i < gate.getOutputs() - 1)
-                    System.out.print(", ");
+            return inputs;
+        }
+
+        Map<String, Boolean> outputMap(int row) {
+            Map<String, Boolean> outputs = new HashMap<>();
+            for (int o = 0; o < outputNames.length; o++) {
+                outputs.put(outputNames[o], outputBit(o, row));
             }
-            System.out.println("]");
+            return outputs;
         }
-        System.out.println("=====================");
-    }
 
-    // ===== INNER CLASSES =====
+        private boolean outputBit(int output, int row) {
+            return ((outputWords[output][row >>> 6] >>> (row & 63)) & 1L) != 0;
+        }
+    }
 
     private static class CircuitInputTerminal {
         final GateComponent gate;
@@ -0,0 +1,295 @@
+package org.yourcompany.yourproject.backend.businessLayer.analysis;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.CircuitSnapshot;
+
+/**
+ * Streams packed test-vector files through a circuit.
+ *
+ * Both vector and result files share one layout: a magic int, the number of
+ * columns, each column name as a two-byte length plus UTF-8 bytes, the number
+ * of rows as a long, then one packed row per vector with column i in bit
+ * {@code i % 8} of byte {@code i / 8}. Input columns name circuit inputs
+ * (gate + "_in" + port), output columns name gates.
+ *
+ * Rows are read from and written to memory-mapped windows and evaluated 64 at
+ * a time through a {@link BatchSimulator}, so no objects are created per row.
+ */
+public final class VectorFileRunner {
+
+    public static final int VECTOR_MAGIC = 0x4C535631; // "LSV1"
+    public static final int RESULT_MAGIC = 0x4C535231; // "LSR1"
+
+    // Upper bound on the bytes mapped at once, so files beyond 2 GB work too
+    private static final long WINDOW_BYTES = 1L << 26;
+
+    private VectorFileRunner() {
+    }
+
+    // ===== RUNNING =====
+
+    /**
+     * Evaluate every row of a vector file and write the outputs of the named
+     * gates, row for row, to a result file
+     *
+     * @return the number of rows evaluated
+     */
+    public static long run(Circuit circuit, Path vectorFile, Path resultFile, List<String> outputNames)
+            throws IOException {
+        return run(FlattenedCircuit.of(circuit), vectorFile, resultFile, outputNames);
+    }
+
+    /**
+     * Like {@link #run(Circuit, Path, Path, List)}, reading only a snapshot, so
+     * it can run on a background thread while the circuit is being edited
+     */
+    public static long run(CircuitSnapshot snapshot, Path vectorFile, Path resultFile, List<String> outputNames)
+            throws IOException {
+        return run(FlattenedCircuit.flatten(snapshot), vectorFile, resultFile, outputNames);
+    }
+
+    private static long run(FlattenedCircuit flat, Path vectorFile, Path resultFile, List<String> outputNames)
+            throws IOException {
+        try (FileChannel in = FileChannel.open(vectorFile, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(resultFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Header header = readHeader(in, VECTOR_MAGIC);
+            BatchSimulator batch = new BatchSimulator(flat, header.names, outputNames);
+
+            int inputCount = header.names.size();
+            int outputCount = outputNames.size();
+            int inputRowBytes = rowBytes(inputCount);
+            int outputRowBytes = rowBytes(outputCount);
+            long resultOffset = writeHeader(out, RESULT_MAGIC, outputNames, header.rows);
+
+            long[] inputLanes = new long[inputCount];
+            long[] outputLanes = new long[outputCount];
+            long windowRows = windowRows(Math.max(inputRowBytes, outputRowBytes));
+
+            for (long first = 0; first < header.rows; first += windowRows) {
+                int rows = (int) Math.min(windowRows, header.rows - first);
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY,
+                        header.dataOffset + first * inputRowBytes, (long) rows * inputRowBytes);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE,
+                        resultOffset + first * outputRowBytes, (long) rows * outputRowBytes);
+
+                for (int row = 0; row < rows; row += BitParallelSimulator.LANES) {
+                    int lanes = Math.min(BitParallelSimulator.LANES, rows - row);
+                    unpackRows(source, row * inputRowBytes, inputRowBytes, lanes, inputLanes);
+                    batch.evaluateBlock(inputLanes, outputLanes);
+                    packRows(target, row * outputRowBytes, outputRowBytes, lanes, outputLanes);
+                }
+                target.force();
+            }
+            return header.rows;
+        }
+    }
+
+    /**
+     * Transpose packed rows into one lane word per column
+     */
+    private static void unpackRows(ByteBuffer buffer, int offset, int rowBytes, int lanes, long[] columns) {
+        for (int column = 0; column < columns.length; column++) {
+            int byteIndex = column >>> 3;
+            int bit = column & 7;
+            long word = 0L;
+            for (int lane = 0; lane < lanes; lane++) {
+                word |= (long) ((buffer.get(offset + lane * rowBytes + byteIndex) >>> bit) & 1) << lane;
+            }
+            columns[column] = word;
+        }
+    }
+
+    /**
+     * Transpose lane words back into packed rows
+     */
+    private static void packRows(ByteBuffer buffer, int offset, int rowBytes, int lanes, long[] columns) {
+        for (int lane = 0; lane < lanes; lane++) {
+            int rowStart = offset + lane * rowBytes;
+            for (int byteIndex = 0; byteIndex < rowBytes; byteIndex++) {
+                int value = 0;
+                int end = Math.min(columns.length, (byteIndex + 1) * 8);
+                for (int column = byteIndex * 8; column < end; column++) {
+                    value |= (int) ((columns[column] >>> lane) & 1L) << (column & 7);
+                }
+                buffer.put(rowStart + byteIndex, (byte) value);
+            }
+        }
+    }
+
+    // ===== FILE ACCESS =====
+
+    /**
+     * Write a vector file, taking each row from the source
+     *
+     * @return the number of rows written
+     */
+    public static long writeVectors(Path vectorFile, List<String> inputNames, long rows,
+            BatchSimulator.StimulusSource source) throws IOException {
+        try (FileChannel out = FileChannel.open(vectorFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int rowBytes = rowBytes(inputNames.size());
+            long dataOffset = writeHeader(out, VECTOR_MAGIC, inputNames, rows);
+            boolean[] row = new boolean[inputNames.size()];
+            long windowRows = windowRows(rowBytes);
+
+            for (long first = 0; first < rows; first += windowRows) {
+                int count = (int) Math.min(windowRows, rows - first);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE,
+                        dataOffset + first * rowBytes, (long) count * rowBytes);
+                for (int i = 0; i < count; i++) {
+                    if (!source.next(row)) {
+                        throw new IllegalArgumentException("Source ended after " + (first + i) + " of " + rows + " rows");
+                    }
+                    for (int byteIndex = 0; byteIndex < rowBytes; byteIndex++) {
+                        int value = 0;
+                        int end = Math.min(row.length, (byteIndex + 1) * 8);
+                        for (int column = byteIndex * 8; column < end; column++) {
+                            if (row[column]) {
+                                value |= 1 << (column & 7);
+                            }
+                        }
+                        target.put(i * rowBytes + byteIndex, (byte) value);
+                    }
+                }
+                target.force();
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Read a result file row by row into the sink
+     *
+     * @return the number of rows read
+     */
+    public static long readResults(Path resultFile, BatchSimulator.ResponseSink sink) throws IOException {
+        try (FileChannel in = FileChannel.open(resultFile, StandardOpenOption.READ)) {
+            Header header = readHeader(in, RESULT_MAGIC);
+            int rowBytes = rowBytes(header.names.size());
+            boolean[] row = new boolean[header.names.size()];
+            long windowRows = windowRows(rowBytes);
+
+            for (long first = 0; first < header.rows; first += windowRows) {
+                int count = (int) Math.min(windowRows, header.rows - first);
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY,
+                        header.dataOffset + first * rowBytes, (long) count * rowBytes);
+                for (int i = 0; i < count; i++) {
+                    for (int column = 0; column < row.length; column++) {
+                        row[column] = ((source.get(i * rowBytes + (column >>> 3)) >>> (column & 7)) & 1) != 0;
+                    }
+                    sink.accept(first + i, row);
+                }
+            }
+            return header.rows;
+        }
+    }
+
+    /**
+     * Column names stored in a vector or result file
+     */
+    public static List<String> readColumnNames(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = readFully(in, Integer.BYTES);
+            in.position(0);
+            return readHeader(in, magic.getInt()).names;
+        }
+    }
+
+    // ===== HEADER =====
+
+    private static final class Header {
+        private final List<String> names;
+        private final long rows;
+        private final long dataOffset;
+
+        Header(List<String> names, long rows, long dataOffset) {
+            this.names = names;
+            this.rows = rows;
+            this.dataOffset = dataOffset;
+        }
+    }
+
+    private static long writeHeader(FileChannel out, int magic, List<String> names, long rows) throws IOException {
+        int size = Integer.BYTES * 2 + Long.BYTES;
+        List<byte[]> encoded = new ArrayList<>(names.size());
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("Column name too long: " + name);
+            }
+            encoded.add(bytes);
+            size += Short.BYTES + bytes.length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(size);
+        header.putInt(magic).putInt(names.size());
+        for (byte[] bytes : encoded) {
+            header.putShort((short) bytes.length).put(bytes);
+        }
+        header.putLong(rows).flip();
+        out.position(0);
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+        return size;
+    }
+
+    private static Header readHeader(FileChannel in, int expectedMagic) throws IOException {
+        ByteBuffer start = readFully(in, Integer.BYTES * 2);
+        int magic = start.getInt();
+        if (magic != expectedMagic) {
+            throw new IOException("Unexpected file magic: " + Integer.toHexString(magic));
+        }
+        int count = start.getInt();
+        if (count < 0) {
+            throw new IOException("Corrupt column count: " + count);
+        }
+
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = readFully(in, Short.BYTES).getShort() & 0xFFFF;
+            names.add(StandardCharsets.UTF_8.decode(readFully(in, length)).toString());
+        }
+        long rows = readFully(in, Long.BYTES).getLong();
+        long dataOffset = in.position();
+        if (rows < 0 || in.size() < dataOffset + rows * rowBytes(count)) {
+            throw new IOException("File is shorter than its " + rows + " rows");
+        }
+        return new Header(Collections.unmodifiableList(names), rows, dataOffset);
+    }
+
+    private static ByteBuffer readFully(FileChannel in, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int rowBytes(int columns) {
+        return (columns + 7) >>> 3;
+    }
+
+    /**
+     * Rows per mapped window: a whole number of 64-row blocks
+     */
+    private static long windowRows(int rowBytes) {
+        long rows = WINDOW_BYTES / Math.max(1, rowBytes);
+        return Math.max(BitParallelSimulator.LANES, rows - rows % BitParallelSimulator.LANES);
+    }
+}
@@ -0,0 +1,53 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+/**
+ * External ports of a circuit: input ports with no driver inside the circuit
+ * and output ports that drive nothing inside it, in gate order then port
+ * order. External index i is (gate, port) entry i, which is how
+ * {@link SubcircuitComponent} maps its own ports onto the circuit.
+ *
+ * Built by {@link Circuit#getBoundaryPorts()} and kept until the circuit's
+ * structure changes.
+ */
+public final class BoundaryPorts {
+
+    private final GateComponent[] inputGates;
+    private final int[] inputPorts;
+    private final GateComponent[] outputGates;
+    private final int[] outputPorts;
+
+    BoundaryPorts(GateComponent[] inputGates, int[] inputPorts, GateComponent[] outputGates, int[] outputPorts) {
+        this.inputGates = inputGates;
+        this.inputPorts = inputPorts;
+        this.outputGates = outputGates;
+        this.outputPorts = outputPorts;
+    }
+
+    // ===== INPUTS =====
+
+    public int getInputCount() {
+        return inputGates.length;
+    }
+
+    public GateComponent getInputGate(int index) {
+        return inputGates[index];
+    }
+
+    public int getInputPort(int index) {
+        return inputPorts[index];
+    }
+
+    // ===== OUTPUTS =====
+
+    public int getOutputCount() {
+        return outputGates.length;
+    }
+
+    public GateComponent getOutputGate(int index) {
+        return outputGates[index];
+    }
+
+    public int getOutputPort(int index) {
+        return outputPorts[index];
+    }
+}
@@ -1,20 +1,48 @@
 package org.yourcompany.yourproject.backend.businessLayer.components;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 import org.yourcompany.yourproject.backend.businessLayer.components.gates.LED;
 
 public class Circuit {
+    /** Visits per gate allowed to {@link #applyInputChange} before it gives up */
+    public static final int MAX_CONE_PASSES = 100;
+
     private String CircuitName;
     private List<GateComponent> circuitInputNodes = new ArrayList<>();
     private List<GateComponent> circuitOutputNodes = new ArrayList<>();
 
-    private List<Connector> wires = new ArrayList<>();
+    // Indexed by identity and id; gates and wires are their read-only views
+    private final OrderedIndex<Connector> wireIndex = new OrderedIndex<>(Connector::getId);
+    private final List<Connector> wires = wireIndex.view();
+
+    private final OrderedIndex<GateComponent> gateIndex = new OrderedIndex<>(GateComponent::getId);
+    private final List<GateComponent> gates = gateIndex.view();
 
-    private List<GateComponent> gates = new ArrayList<>();
+    // Bumped on every structural edit; cached analysis is only valid for one version
+    private int structureVersion;
+    private List<GateComponent> evaluationOrder;
+    private Map<GateComponent, Integer> evaluationRank;
+    private BoundaryPorts boundaryPorts;
+    private StateCheckpoint clearedState;
+    // Last snapshot taken, whose unchanged gate entries the next one reuses
+    private CircuitSnapshot lastSnapshot;
+    // Held by subcircuit instances while they drive this circuit as their definition
+    final Object instanceLock = new Object();
 
     // ===== CONSTRUCTORS AND BASIC PROPERTIES =====
 
@@ -32,20 +60,47 @@ public class Circuit {
         this.CircuitName = name;
     }
 
+    /**
+     * Read-only view of the gates in insertion order; use addGateFunc and
+     * removeGate to change them
+     */
     public List<GateComponent> getGates() {
         return gates;
     }
 
+    /**
+     * Replace every gate. Wires are left as they are.
+     */
     public void setGates(List<GateComponent> gates) {
-        this.gates = gates;
+        gateIndex.clear();
+        for (GateComponent gate : gates) {
+            gateIndex.add(gate);
+        }
+        markStructureChanged();
     }
 
+    /**
+     * Read-only view of the wires in insertion order; use addConnectionWire and
+     * removeConnectionWire to change them
+     */
     public List<Connector> getWires() {
         return wires;
     }
 
+    /**
+     * Replace every wire. The wires are not attached or detached.
+     */
     public void setWires(List<Connector> wires) {
-        this.wires = wires;
+        for (Connector wire : this.wires) {
+            wire.setOwner(null);
+        }
+        wireIndex.clear();
+        for (Connector wire : wires) {
+            if (wireIndex.add(wire)) {
+                wire.setOwner(this);
+            }
+        }
+        markStructureChanged();
     }
 
     public List<GateComponent> getInputNodes() {
@@ -56,52 +111,90 @@ public class Circuit {
         return circuitOutputNodes;
     }
 
+    /**
+     * Counter that changes whenever gates or wires are added or removed, or a
+     * wire of the circuit is rewired, so callers can tell whether something
+     * they derived from the structure is still valid
+     */
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
+    void markStructureChanged() {
+        structureVersion++;
+        evaluationOrder = null;
+        evaluationRank = null;
+        boundaryPorts = null;
+        clearedState = null;
+    }
+
     // ===== COMPONENT MANAGEMENT =====
 
     // Add a component (gate) to the circuit
     public void addGateFunc(GateComponent gate) {
-        if (gate != null && !gates.contains(gate)) {
-            gates.add(gate);
+        if (gateIndex.add(gate)) {
+            markStructureChanged();
         }
     }
 
+    /**
+     * Same read-only view as {@link #getWires()}
+     */
     public List<Connector> getConnectors() {
-        return wires; // or whatever your connector list is called
+        return wires;
     }
 
     // Remove a component from the circuit
     public void removeGate(GateComponent gate) {
         if (gate != null) {
-            // Disconnect all wires connected to this gate
+            // Disconnect the wires of this gate; its ports are its incidence lists
             List<Connector> toRemove = new ArrayList<>();
-            for (Connector wire : wires) {
-                if (wire.getFromGate() == gate || wire.getToGate() == gate) {
-                    wire.disconnectWire();
+            for (int port = 0; port < gate.getInputs(); port++) {
+                Connector wire = gate.getInputWire(port);
+                if (wire != null && wireIndex.contains(wire)) {
                     toRemove.add(wire);
                 }
             }
-            wires.removeAll(toRemove);
-            gates.remove(gate);
+            for (int port = 0; port < gate.getOutputs(); port++) {
+                Net net = gate.getOutputNet(port);
+                for (int i = 0; net != null && i < net.getSinkCount(); i++) {
+                    if (wireIndex.contains(net.getSink(i))) {
+                        toRemove.add(net.getSink(i));
+                    }
+                }
+            }
+            for (Connector wire : toRemove) {
+                wire.setOwner(null);
+                wire.disconnectWire();
+                wireIndex.remove(wire);
+            }
+            gateIndex.remove(gate);
 
             // Also remove from input/output nodes if present
             circuitInputNodes.remove(gate);
             circuitOutputNodes.remove(gate);
+            markStructureChanged();
         }
     }
 
     // Add a wire/connector to the circuit
     public void addConnectionWire(Connector wire) {
-        if (wire != null && !wires.contains(wire)) {
-            wires.add(wire);
+        if (wireIndex.add(wire)) {
+            wire.setOwner(this);
             wire.recalculateWirePositions();
+            markStructureChanged();
         }
     }
 
     // Remove a wire from the circuit
     public void removeConnectionWire(Connector wire) {
         if (wire != null) {
+            if (wireIndex.contains(wire)) {
+                wire.setOwner(null);
+            }
             wire.disconnectWire();
-            wires.remove(wire);
+            wireIndex.remove(wire);
+            markStructureChanged();
         }
     }
 
@@ -114,11 +207,7 @@ public class Circuit {
         if (toPort < 0 || toPort >= toGate.getInputs())
             return null;
 
-        // Check if output port is already connected
-        if (fromGate.getOutputWire(fromPort) != null) {
-            return null; // Port already connected
-        }
-
+        // Outputs fan out to any number of wires, but an input has a single driver
         // Check if input port is already connected
         if (toGate.getInputWire(toPort) != null) {
             return null; // Port already connected
@@ -148,22 +237,12 @@ public class Circuit {
 
     // Find a gate by its ID
     public GateComponent getGateById(String id) {
-        for (GateComponent gate : gates) {
-            if (gate.getId().equals(id)) {
-                return gate;
-            }
-        }
-        return null;
+        return gateIndex.get(id);
     }
 
     // Find a wire by its ID
     public Connector getWireById(String id) {
-        for (Connector wire : wires) {
-            if (wire.getId().equals(id)) {
-                return wire;
-            }
-        }
-        return null;
+        return wireIndex.get(id);
     }
 
     // ===== CIRCUIT SIMULATION AND EVALUATION =====
@@ -179,7 +258,9 @@ public class Circuit {
     }
 
     /**
-     * Evaluate the entire circuit using sequential propagation
+     * Evaluate the entire circuit in one pass over the topological order.
+     * Every gate reads its drivers after they have been evaluated, so acyclic
+     * circuits are settled when the pass ends.
      */
     public void evaluate() {
         if (gates.isEmpty())
@@ -188,20 +269,105 @@ public class Circuit {
         // Reset all gate states
         reinitializeCircuitState();
 
-        // Get all gates in evaluation order (inputs first, then dependencies)
-        List<GateComponent> evaluationOrder = computeEvaluationSequence();
-
-        // Evaluate each gate in order
-        for (GateComponent gate : evaluationOrder) {
-            // Propagate inputs to this gate first
+        // Evaluate each gate after all of its drivers
+        for (GateComponent gate : computeEvaluationSequence()) {
+            // Pull inputs from the driving gates first
             updateGateInputSignals(gate);
 
-            // Then evaluate the gate
-            gate.evaluate();
+            // Then evaluate the gate; its sinks pull the result in turn, so
+            // nothing is pushed downstream recursively
+            gate.evaluateInPlace();
+        }
+    }
+
+    /**
+     * Set one gate input and re-evaluate only the gates downstream of it, in
+     * evaluation order. Each gate is evaluated in place and its sinks are only
+     * scheduled when one of its outputs actually changed, so the work is
+     * bounded by the part of the fan-out cone that moves. Gates on feedback
+     * loops may be revisited; the run stops after
+     * {@link #MAX_CONE_PASSES} visits per gate of the circuit and reports the
+     * cone unsettled if gates were still pending then.
+     *
+     * @return the nets that changed and whether the cone settled
+     * @throws IllegalArgumentException if the gate is not part of this circuit
+     */
+    public InputChange applyInputChange(GateComponent gate, int port, boolean value) {
+        if (!isMember(gate)) {
+            throw new IllegalArgumentException("Gate is not part of circuit " + CircuitName + ": " + gate);
+        }
+        Map<GateComponent, Integer> rank = evaluationRank();
+        List<GateComponent> order = computeEvaluationSequence();
+        Set<Net> changed = new LinkedHashSet<>();
+
+        gate.assignInputBit(port, value);
+        Connector wire = gate.getInputWire(port);
+        if (wire != null) {
+            wire.setSignalValue(value);
         }
 
-        // One final propagation to ensure outputs are set
-        sigPropogation();
+        PriorityQueue<Integer> pending = new PriorityQueue<>();
+        BitSet queued = new BitSet(order.size());
+        pending.add(rank.get(gate));
+        queued.set(rank.get(gate));
+        long budget = (long) MAX_CONE_PASSES * order.size();
+        boolean[] before = new boolean[8];
+
+        while (!pending.isEmpty()) {
+            if (budget-- == 0) {
+                return new InputChange(changed, false);
+            }
+            int position = pending.poll();
+            queued.clear(position);
+            GateComponent current = order.get(position);
+
+            int outputs = current.getOutputs();
+            if (before.length < outputs) {
+                before = new boolean[outputs];
+            }
+            for (int out = 0; out < outputs; out++) {
+                before[out] = current.getOutputBit(out);
+            }
+            current.evaluateInPlace();
+
+            for (int out = 0; out < outputs; out++) {
+                boolean bit = current.getOutputBit(out);
+                if (bit == before[out]) {
+                    continue;
+                }
+                Net net = current.getOutputNet(out);
+                changed.add(net);
+                for (int i = 0; i < net.getSinkCount(); i++) {
+                    Connector sinkWire = net.getSink(i);
+                    GateComponent sink = sinkWire.getToGate();
+                    sinkWire.setSignalValue(bit);
+                    Integer sinkRank = sink == null ? null : rank.get(sink);
+                    if (sinkRank != null) {
+                        sink.assignInputBit(sinkWire.getDestinationPortIndex(), bit);
+                        if (!queued.get(sinkRank)) {
+                            queued.set(sinkRank);
+                            pending.add(sinkRank);
+                        }
+                    }
+                }
+            }
+        }
+        return new InputChange(changed, true);
+    }
+
+    /**
+     * Position of every gate in the evaluation order
+     */
+    private Map<GateComponent, Integer> evaluationRank() {
+        if (evaluationRank == null) {
+            List<GateComponent> order = computeEvaluationSequence();
+            Map<GateComponent, Integer> rank = new IdentityHashMap<>(order.size() * 2);
+            for (int i = 0; i < order.size(); i++) {
+                rank.put(order.get(i), i);
+            }
+            evaluationRank = rank;
+        }
+        return evaluationRank;
     }
 
     /**
@@ -221,23 +387,60 @@ public class Circuit {
     /**
      * NEW: Enhanced signal propagation with LED support
      * This method ensures LEDs get immediate visual feedback
+     *
+     * @return true if the wires settled, false if they oscillate or the
+     *         iteration cap was hit
+     */
+    public boolean propagateSignalsWithLEDUpdate() {
+        return propagateSignalsWithLEDUpdate(() -> false);
+    }
+
+    /**
+     * Signal propagation that also stops when asked to. The wire values are
+     * recorded after every cycle, indexed by a hash; seeing a recorded state
+     * again, compared value by value, means the circuit oscillates, so the
+     * loop ends there instead of running to the cap.
+     *
+     * @param stopRequested polled once per cycle for cooperative cancellation
+     * @return true if the wires settled
      */
-    public void propagateSignalsWithLEDUpdate() {
+    public boolean propagateSignalsWithLEDUpdate(BooleanSupplier stopRequested) {
         boolean changed;
         int maxIterations = 100; // Prevent infinite loops
         int iterations = 0;
+        Map<Long, List<Boolean[]>> seenStates = new HashMap<>();
+        PropagationScheduler scheduler = new PropagationScheduler();
+        Boolean[] oldValues = new Boolean[wires.size()];
 
         do {
+            if (stopRequested.getAsBoolean()) {
+                return false;
+            }
             changed = false;
+            boolean tracing = SimulationTrace.isEnabled();
 
-            // Propagate signals through all wires
-            for (Connector wire : wires) {
-                Boolean oldValue = wire.getSignalValue();
-                wire.transmitSig();
+            // Propagate signals through all wires; the scheduler evaluates the
+            // gates they reach level by level instead of recursing per wire
+            for (int i = 0; i < oldValues.length; i++) {
+                oldValues[i] = wires.get(i).getSignalValue();
+            }
+            scheduler.execute(() -> {
+                for (Connector wire : wires) {
+                    wire.transmitSig();
+                }
+            });
+
+            for (int i = 0; i < oldValues.length; i++) {
+                Connector wire = wires.get(i);
+                Boolean oldValue = oldValues[i];
                 Boolean newValue = wire.getSignalValue();
 
-                if (oldValue != newValue) {
+                if (!Objects.equals(oldValue, newValue)) {
                     changed = true;
+                    if (tracing) {
+                        SimulationTrace.record(SimulationTrace.SIGNAL, wire.getFromGate(), wire.getSourcePortIndex(),
+                                Boolean.TRUE.equals(oldValue), Boolean.TRUE.equals(newValue), iterations);
+                    }
                 }
             }
 
@@ -245,35 +448,102 @@ public class Circuit {
             updateLEDStates();
 
             iterations++;
+            if (changed && !recordWireState(seenStates)) {
+                return false;
+            }
         } while (changed && iterations < maxIterations);
+        return !changed;
+    }
+
+    /**
+     * Add the current wire values to the states seen so far
+     *
+     * @return false if the same values were seen before; a hash match alone
+     *         is not taken as a repeat
+     */
+    private boolean recordWireState(Map<Long, List<Boolean[]>> seenStates) {
+        Boolean[] state = new Boolean[wires.size()];
+        long hash = 1L;
+        for (int i = 0; i < state.length; i++) {
+            Boolean value = wires.get(i).getSignalValue();
+            state[i] = value;
+            hash = hash * 0x9E3779B97F4A7C15L + (value == null ? 0 : value ? 1 : 2);
+        }
+        List<Boolean[]> sameHash = seenStates.computeIfAbsent(hash, h -> new ArrayList<>(1));
+        for (Boolean[] seen : sameHash) {
+            if (Arrays.equals(seen, state)) {
+                return false;
+            }
+        }
+        sameHash.add(state);
+        return true;
     }
 
     /**
-     * Get gates in proper evaluation order (topological sort)
+     * Get gates in proper evaluation order (Kahn topological sort over the
+     * internal wires). The order is cached until the structure changes. Gates
+     * on feedback loops, which have no such order, come last in circuit order.
      */
-    private List<GateComponent> computeEvaluationSequence() {
-        List<GateComponent> result = new ArrayList<>();
-        List<GateComponent> remaining = new ArrayList<>(gates);
+    public List<GateComponent> computeEvaluationSequence() {
+        if (evaluationOrder != null) {
+            return evaluationOrder;
+        }
+
+        Map<GateComponent, Integer> indegree = new IdentityHashMap<>();
+        Map<GateComponent, List<GateComponent>> fanout = new IdentityHashMap<>();
+        for (GateComponent gate : gates) {
+            indegree.put(gate, 0);
+        }
+        for (GateComponent gate : gates) {
+            for (int i = 0; i < gate.getInputs(); i++) {
+                Connector connector = gate.getInputWire(i);
+                if (connector != null && indegree.containsKey(connector.getFromGate())) {
+                    indegree.merge(gate, 1, Integer::sum);
+                    fanout.computeIfAbsent(connector.getFromGate(), g -> new ArrayList<>()).add(gate);
+                }
+            }
+        }
 
-        // Start with input nodes (gates with no internal dependencies)
-        List<GateComponent> inputNodes = findCircuitInputs();
-        result.addAll(inputNodes);
-        remaining.removeAll(inputNodes);
+        List<GateComponent> result = new ArrayList<>(gates.size());
+        ArrayDeque<GateComponent> ready = new ArrayDeque<>();
+        for (GateComponent gate : gates) {
+            if (indegree.get(gate) == 0) {
+                ready.add(gate);
+            }
+        }
+        while (!ready.isEmpty()) {
+            GateComponent gate = ready.poll();
+            result.add(gate);
+            for (GateComponent sink : fanout.getOrDefault(gate, Collections.emptyList())) {
+                if (indegree.merge(sink, -1, Integer::sum) == 0) {
+                    ready.add(sink);
+                }
+            }
+        }
 
-        // Then add the rest in the order they appear (simple approach)
-        result.addAll(remaining);
+        if (result.size() < gates.size()) {
+            for (GateComponent gate : gates) {
+                if (indegree.get(gate) > 0) {
+                    result.add(gate);
+                }
+            }
+        }
 
-        return result;
+        evaluationOrder = Collections.unmodifiableList(result);
+        return evaluationOrder;
     }
 
     /**
-     * Propagate all input signals to a specific gate
+     * Copy the driving gates' outputs onto a gate's inputs, without triggering
+     * recomputation, and record them on the wires
      */
     private void updateGateInputSignals(GateComponent gate) {
         for (int i = 0; i < gate.getInputs(); i++) {
             Connector inputConnector = gate.getInputWire(i);
-            if (inputConnector != null) {
-                inputConnector.transmitSig();
+            if (inputConnector != null && inputConnector.getFromGate() != null) {
+                boolean value = inputConnector.getFromGate().getOutputBit(inputConnector.getSourcePortIndex());
+                inputConnector.setSignalValue(value);
+                gate.assignInputBit(i, value);
             }
         }
 
@@ -284,22 +554,16 @@ public class Circuit {
     }
 
     /**
-     * Improved reset that preserves external connections
+     * Improved reset that preserves external connections: internally driven
+     * inputs and all outputs go low in one copy from a cleared checkpoint
      */
     private void reinitializeCircuitState() {
-        for (GateComponent gate : gates) {
-            // Only reset inputs that are connected internally
-            for (int i = 0; i < gate.getInputs(); i++) {
-                Connector connector = gate.getInputWire(i);
-                if (connector != null && gates.contains(connector.getFromGate())) {
-                    gate.assignInputDirectly(i, false);
-                }
-            }
-            // Reset all outputs
-            for (int i = 0; i < gate.getOutputs(); i++) {
-                gate.assignOutputDirectly(i, false);
-            }
+        if (clearedState == null) {
+            clearedState = StateCheckpoint.cleared(this, gates);
+        }
+        clearedState.restore();
 
+        for (GateComponent gate : gates) {
             // NEW: Reset LED state
             if (gate instanceof LED) {
                 ((LED) gate).computeOutput(); // Recompute based on reset inputs
@@ -307,78 +571,150 @@ public class Circuit {
         }
     }
 
+    /**
+     * Capture the port values of this circuit and every nested definition, to
+     * be put back later with {@link StateCheckpoint#restore()}
+     */
+    public StateCheckpoint checkpoint() {
+        return StateCheckpoint.capture(this);
+    }
+
     // ===== CIRCUIT INPUT/OUTPUT INTERFACE =====
 
     /**
      * Get input value for a circuit component (for hierarchical circuits)
      */
     public Boolean getInputVal(int index) {
-
-        List<GateComponent> inputNodes = findCircuitInputs();
-        int currentIndex = 0;
-
-        for (GateComponent inputNode : inputNodes) {
-            for (int port = 0; port < inputNode.getInputs(); port++) {
-                Connector connector = inputNode.getInputWire(port);
-                if (connector == null || !gates.contains(connector.getFromGate())) {
-                    if (currentIndex == index) {
-                        return inputNode.getInputVal(port);
-                    }
-                    currentIndex++;
-                }
-            }
+        BoundaryPorts boundary = getBoundaryPorts();
+        if (index < 0 || index >= boundary.getInputCount()) {
+            return false;
         }
-
-        return false;
+        return boundary.getInputGate(index).getInputBit(boundary.getInputPort(index));
     }
 
     /**
      * Set input value for a circuit component (for hierarchical circuits)
      */
     public void setInputVal(int index, Boolean value) {
-        List<GateComponent> inputNodes = findCircuitInputs();
-        int currentIndex = 0;
-
-        for (GateComponent inputNode : inputNodes) {
-
-            for (int port = 0; port < inputNode.getInputs(); port++) {
-                Connector connector = inputNode.getInputWire(port);
-                if (connector == null || !gates.contains(connector.getFromGate())) {
-                    if (currentIndex == index) {
-                        inputNode.assignInputDirectly(port, value);
-                        // Immediately evaluate to propagate changes
-                        inputNode.evaluate();
-
-                        // NEW: Force LED updates if this input affects any LED
-                        updateLEDStates();
-                        return;
-                    }
-                    currentIndex++;
-                }
-            }
+        BoundaryPorts boundary = getBoundaryPorts();
+        if (index < 0 || index >= boundary.getInputCount()) {
+            return;
         }
+        GateComponent inputNode = boundary.getInputGate(index);
+        inputNode.assignInputDirectly(boundary.getInputPort(index), value);
+        // Immediately evaluate to propagate changes, one level per step
+        new PropagationScheduler().execute(inputNode::evaluate);
+
+        // NEW: Force LED updates if this input affects any LED
+        updateLEDStates();
     }
 
     /**
      * Get output value for a circuit component (for hierarchical circuits)
      */
     public Boolean getOutputVal(int index) {
-        List<GateComponent> outputNodesStorage = findCircuitOutputs();
-        int currentIndex = 0;
-
-        for (GateComponent outputNode : outputNodesStorage) {
-            for (int port = 0; port < outputNode.getOutputs(); port++) {
-                Connector connector = outputNode.getOutputWire(port);
-                if (connector == null || !gates.contains(connector.getToGate())) {
-                    if (currentIndex == index) {
-                        return outputNode.getOutputVal(port);
+        BoundaryPorts boundary = getBoundaryPorts();
+        if (index < 0 || index >= boundary.getOutputCount()) {
+            return false;
+        }
+        return boundary.getOutputGate(index).getOutputBit(boundary.getOutputPort(index));
+    }
+
+    /**
+     * External input and output ports in the order subcircuit components map
+     * them, cached until the structure changes
+     */
+    public BoundaryPorts getBoundaryPorts() {
+        if (boundaryPorts == null) {
+            List<GateComponent> inputGates = new ArrayList<>();
+            List<Integer> inputPorts = new ArrayList<>();
+            List<GateComponent> outputGates = new ArrayList<>();
+            List<Integer> outputPorts = new ArrayList<>();
+            for (GateComponent gate : gates) {
+                for (int port = 0; port < gate.getInputs(); port++) {
+                    if (isFreeInputPort(gate, port)) {
+                        inputGates.add(gate);
+                        inputPorts.add(port);
+                    }
+                }
+                for (int port = 0; port < gate.getOutputs(); port++) {
+                    if (!drivesInternalGate(gate, port)) {
+                        outputGates.add(gate);
+                        outputPorts.add(port);
                     }
-                    currentIndex++;
                 }
             }
+            boundaryPorts = new BoundaryPorts(inputGates.toArray(new GateComponent[0]),
+                    inputPorts.stream().mapToInt(Integer::intValue).toArray(),
+                    outputGates.toArray(new GateComponent[0]),
+                    outputPorts.stream().mapToInt(Integer::intValue).toArray());
         }
+        return boundaryPorts;
+    }
 
-        return false;
+    // ===== SNAPSHOTS =====
+
+    /**
+     * Immutable copy of this circuit's structure, nested definitions
+     * included, that a background simulation can hold while the circuit keeps
+     * being edited. Must be called on the thread that edits the circuit.
+     *
+     * Every call rescans the gates of the circuit and of its nested
+     * definitions, O(gates) each time. Gates unchanged since the previous
+     * snapshot share their entries with it, and a circuit in which nothing
+     * changed returns the previous snapshot without allocating.
+     *
+     * @throws IllegalArgumentException if a circuit contains itself
+     */
+    public CircuitSnapshot snapshot() {
+        return snapshot(new IdentityHashMap<>(), Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private CircuitSnapshot snapshot(Map<Circuit, CircuitSnapshot> taken, Set<Circuit> expanding) {
+        CircuitSnapshot done = taken.get(this);
+        if (done != null) {
+            return done;
+        }
+        if (!expanding.add(this)) {
+            throw new IllegalArgumentException("Circuit contains itself: " + CircuitName);
+        }
+
+        CircuitSnapshot previous = lastSnapshot;
+        int size = gates.size();
+        boolean reusable = previous != null && previous.size() == size
+                && previous.getStructureVersion() == structureVersion && previous.getName().equals(CircuitName);
+        // While every entry matches the previous snapshot there is nothing to copy
+        CircuitSnapshot.GateEntry[] entries = reusable ? null : new CircuitSnapshot.GateEntry[size];
+        for (int i = 0; i < size; i++) {
+            GateComponent gate = gates.get(i);
+            CircuitSnapshot definition = null;
+            if (gate instanceof SubcircuitComponent) {
+                Circuit inner = ((SubcircuitComponent) gate).getReferencedCircuit();
+                if (inner != null) {
+                    definition = inner.snapshot(taken, expanding);
+                }
+            }
+            CircuitSnapshot.GateEntry entry = previous == null ? null : previous.findEntry(gate, i);
+            if (entry == null || !entry.matches(gate, definition)) {
+                entry = new CircuitSnapshot.GateEntry(gate, definition);
+            }
+            if (entries == null && previous.getEntry(i) != entry) {
+                entries = new CircuitSnapshot.GateEntry[size];
+                for (int j = 0; j < i; j++) {
+                    entries[j] = previous.getEntry(j);
+                }
+            }
+            if (entries != null) {
+                entries[i] = entry;
+            }
+        }
+        expanding.remove(this);
+
+        CircuitSnapshot snapshot = entries == null ? previous
+                : new CircuitSnapshot(this, CircuitName, structureVersion, entries);
+        lastSnapshot = snapshot;
+        taken.put(this, snapshot);
+        return snapshot;
     }
 
     // ===== CIRCUIT ANALYSIS AND IDENTIFICATION =====
@@ -387,34 +723,14 @@ public class Circuit {
      * Count circuit inputs - IMPROVED VERSION
      */
     public int calculateInputCount() {
-        List<GateComponent> inputNodes = findCircuitInputs();
-        System.out.println("DEBUG: Circuit '" + CircuitName + "' - Input nodes found: " + inputNodes.size());
-
-        // Count total input ports across all input nodes
-        int totalInputs = 0;
-        for (GateComponent inputNode : inputNodes) {
-            totalInputs += getFreeInputPortCount(inputNode);
-        }
-
-        System.out.println("DEBUG: Circuit '" + CircuitName + "' - Total input ports: " + totalInputs);
-        return Math.max(1, totalInputs); // Ensure at least 1 input
+        return Math.max(1, getBoundaryPorts().getInputCount()); // Ensure at least 1 input
     }
 
     /**
      * Count circuit outputs - IMPROVED VERSION
      */
     public int calculateOutputCount() {
-        List<GateComponent> outputNodes = findCircuitOutputs();
-        System.out.println("DEBUG: Circuit '" + CircuitName + "' - Output nodes found: " + outputNodes.size());
-
-        // Count total output ports across all output nodes
-        int totalOutputs = 0;
-        for (GateComponent outputNode : outputNodes) {
-            totalOutputs += getFreeOutputPortCount(outputNode);
-        }
-
-        System.out.println("DEBUG: Circuit '" + CircuitName + "' - Total output ports: " + totalOutputs);
-        return Math.max(1, totalOutputs); // Ensure at least 1 output
+        return Math.max(1, getBoundaryPorts().getOutputCount()); // Ensure at least 1 output
     }
 
     /**
@@ -475,28 +791,54 @@ public class Circuit {
     private int getFreeInputPortCount(GateComponent gate) {
         int availablePorts = 0;
         for (int i = 0; i < gate.getInputs(); i++) {
-            Connector connector = gate.getInputWire(i);
-            if (connector == null || !gates.contains(connector.getFromGate())) {
+            if (isFreeInputPort(gate, i)) {
                 availablePorts++;
             }
         }
         return availablePorts;
     }
 
+    /**
+     * True if no gate of this circuit drives the input port
+     */
+    private boolean isFreeInputPort(GateComponent gate, int port) {
+        Connector connector = gate.getInputWire(port);
+        return connector == null || !isMember(connector.getFromGate());
+    }
+
+    boolean isMember(GateComponent gate) {
+        return gateIndex.contains(gate);
+    }
+
     /**
      * Count available output ports on a gate (ports not connected internally)
      */
     private int getFreeOutputPortCount(GateComponent gate) {
         int availablePorts = 0;
         for (int i = 0; i < gate.getOutputs(); i++) {
-            Connector connector = gate.getOutputWire(i);
-            if (connector == null || !gates.contains(connector.getToGate())) {
+            if (!drivesInternalGate(gate, i)) {
                 availablePorts++;
             }
         }
         return availablePorts;
     }
 
+    /**
+     * True if any wire on the output port's net ends at a gate of this circuit
+     */
+    public boolean drivesInternalGate(GateComponent gate, int port) {
+        Net net = gate.getOutputNet(port);
+        if (net == null) {
+            return false;
+        }
+        for (int i = 0; i < net.getSinkCount(); i++) {
+            if (isMember(net.getSink(i).getToGate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean hasAvailableInputPorts(GateComponent gate) {
         return getFreeInputPortCount(gate) > 0;
     }
@@ -507,7 +849,7 @@ public class Circuit {
 
     private boolean hasInternalInputConnections(GateComponent gate) {
         for (Connector wire : wires) {
-            if (wire.getToGate() == gate && gates.contains(wire.getFromGate())) {
+            if (wire.getToGate() == gate && isMember(wire.getFromGate())) {
                 return true;
             }
         }
@@ -516,7 +858,7 @@ public class Circuit {
 
     private boolean hasInternalOutputConnections(GateComponent gate) {
         for (Connector wire : wires) {
-            if (wire.getFromGate() == gate && gates.contains(wire.getToGate())) {
+            if (wire.getFromGate() == gate && isMember(wire.getToGate())) {
                 return true;
             }
         }
@@ -583,13 +925,15 @@ public class Circuit {
     // Clear all components and wires
     public void clear() {
         for (Connector wire : wires) {
+            wire.setOwner(null);
             wire.disconnectWire();
         }
 
-        wires.clear();
-        gates.clear();
+        wireIndex.clear();
+        gateIndex.clear();
         circuitInputNodes.clear();
         circuitOutputNodes.clear();
+        markStructureChanged();
     }
 
     // ===== DEBUG AND UTILITY METHODS =====
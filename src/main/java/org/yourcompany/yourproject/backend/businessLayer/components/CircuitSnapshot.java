@@ -0,0 +1,249 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable structure of a circuit at one point in time: its gates in order,
+ * what drives each of their inputs, and the snapshots of nested subcircuit
+ * definitions.
+ *
+ * Taken with {@link Circuit#snapshot()} on the thread that edits the circuit,
+ * a snapshot can then be handed to a background simulation while the editor
+ * keeps changing the live model. It never reads the gates' mutable state;
+ * gates are only kept as identities, to map results back onto the model.
+ *
+ * Consecutive snapshots share structure: a gate whose name, ports and drivers
+ * did not change keeps its {@link GateEntry}, and a circuit whose entries all
+ * survived returns the previous snapshot itself. Taking a snapshot still
+ * rescans every gate of the hierarchy, so it costs O(gates) time per call, but
+ * after an edit it allocates only a new entry array for the circuits that
+ * changed and new entries for the gates the edit touched.
+ */
+public final class CircuitSnapshot {
+
+    private final Circuit source;
+    private final String name;
+    private final int structureVersion;
+    private final GateEntry[] entries;
+
+    // Derived on first use; racing threads compute equal values
+    private volatile Map<GateComponent, Integer> index;
+    private volatile BoundaryPorts boundaryPorts;
+
+    CircuitSnapshot(Circuit source, String name, int structureVersion, GateEntry[] entries) {
+        this.source = source;
+        this.name = name;
+        this.structureVersion = structureVersion;
+        this.entries = entries;
+    }
+
+    // ===== STRUCTURE =====
+
+    public Circuit getSource() {
+        return source;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Structure version of the source circuit when the snapshot was taken
+     */
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public GateEntry getEntry(int index) {
+        return entries[index];
+    }
+
+    /**
+     * Position of a gate in this snapshot, or -1 if it was not a member
+     */
+    public int indexOf(GateComponent gate) {
+        Integer position = index().get(gate);
+        return position == null ? -1 : position;
+    }
+
+    public boolean contains(GateComponent gate) {
+        return index().containsKey(gate);
+    }
+
+    /**
+     * Entry of a gate, trying its position in a later snapshot first since
+     * most edits leave positions in place
+     */
+    GateEntry findEntry(GateComponent gate, int hint) {
+        if (hint < entries.length && entries[hint].gate == gate) {
+            return entries[hint];
+        }
+        int position = indexOf(gate);
+        return position < 0 ? null : entries[position];
+    }
+
+    private Map<GateComponent, Integer> index() {
+        Map<GateComponent, Integer> current = index;
+        if (current == null) {
+            current = new IdentityHashMap<>(entries.length * 2);
+            for (int i = 0; i < entries.length; i++) {
+                current.putIfAbsent(entries[i].gate, i);
+            }
+            index = current;
+        }
+        return current;
+    }
+
+    /**
+     * External ports as {@link Circuit#getBoundaryPorts()} reported them when
+     * the snapshot was taken
+     */
+    public BoundaryPorts getBoundaryPorts() {
+        BoundaryPorts current = boundaryPorts;
+        if (current == null) {
+            current = computeBoundaryPorts();
+            boundaryPorts = current;
+        }
+        return current;
+    }
+
+    private BoundaryPorts computeBoundaryPorts() {
+        Map<GateComponent, boolean[]> driven = new IdentityHashMap<>();
+        for (GateEntry entry : entries) {
+            for (int port = 0; port < entry.inputs; port++) {
+                GateComponent driver = entry.drivers[port];
+                int driverPort = entry.driverPorts[port];
+                if (driver != null && contains(driver) && driverPort >= 0
+                        && driverPort < entries[indexOf(driver)].outputs) {
+                    driven.computeIfAbsent(driver, g -> new boolean[entries[indexOf(g)].outputs])[driverPort] = true;
+                }
+            }
+        }
+
+        List<GateComponent> inputGates = new ArrayList<>();
+        List<Integer> inputPorts = new ArrayList<>();
+        List<GateComponent> outputGates = new ArrayList<>();
+        List<Integer> outputPorts = new ArrayList<>();
+        for (GateEntry entry : entries) {
+            for (int port = 0; port < entry.inputs; port++) {
+                if (entry.drivers[port] == null || !contains(entry.drivers[port])) {
+                    inputGates.add(entry.gate);
+                    inputPorts.add(port);
+                }
+            }
+            boolean[] drivesInside = driven.get(entry.gate);
+            for (int port = 0; port < entry.outputs; port++) {
+                if (drivesInside == null || !drivesInside[port]) {
+                    outputGates.add(entry.gate);
+                    outputPorts.add(port);
+                }
+            }
+        }
+        return new BoundaryPorts(inputGates.toArray(new GateComponent[0]),
+                inputPorts.stream().mapToInt(Integer::intValue).toArray(),
+                outputGates.toArray(new GateComponent[0]),
+                outputPorts.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * False once the source circuit has been structurally edited. Nested
+     * definitions are tracked by their own snapshots.
+     */
+    public boolean isCurrent() {
+        return source.getStructureVersion() == structureVersion;
+    }
+
+    // ===== INNER CLASSES =====
+
+    /**
+     * Structure of one gate: its ports, the gate and port driving each input
+     * (null when undriven), and for a subcircuit the snapshot of its
+     * definition
+     */
+    public static final class GateEntry {
+        private final GateComponent gate;
+        private final String name;
+        private final int inputs;
+        private final int outputs;
+        private final GateComponent[] drivers;
+        private final int[] driverPorts;
+        private final CircuitSnapshot definition;
+
+        GateEntry(GateComponent gate, CircuitSnapshot definition) {
+            this.gate = gate;
+            this.name = gate.getName();
+            this.inputs = gate.getInputs();
+            this.outputs = gate.getOutputs();
+            this.drivers = new GateComponent[inputs];
+            this.driverPorts = new int[inputs];
+            for (int port = 0; port < inputs; port++) {
+                Connector wire = gate.getInputWire(port);
+                drivers[port] = wire == null ? null : wire.getFromGate();
+                driverPorts[port] = wire == null ? -1 : wire.getSourcePortIndex();
+            }
+            this.definition = definition;
+        }
+
+        /**
+         * True if the gate still has this structure, checked without
+         * allocating
+         */
+        boolean matches(GateComponent current, CircuitSnapshot currentDefinition) {
+            if (current != gate || definition != currentDefinition || !name.equals(current.getName())
+                    || inputs != current.getInputs() || outputs != current.getOutputs()) {
+                return false;
+            }
+            for (int port = 0; port < inputs; port++) {
+                Connector wire = current.getInputWire(port);
+                GateComponent driver = wire == null ? null : wire.getFromGate();
+                int driverPort = wire == null ? -1 : wire.getSourcePortIndex();
+                if (driver != drivers[port] || driverPort != driverPorts[port]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The live gate, for identity only: reading its state from another
+         * thread is not safe
+         */
+        public GateComponent getGate() {
+            return gate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getInputs() {
+            return inputs;
+        }
+
+        public int getOutputs() {
+            return outputs;
+        }
+
+        public GateComponent getDriver(int port) {
+            return drivers[port];
+        }
+
+        public int getDriverPort(int port) {
+            return driverPorts[port];
+        }
+
+        /**
+         * Snapshot of the referenced circuit for a subcircuit, otherwise null
+         */
+        public CircuitSnapshot getDefinition() {
+            return definition;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.yourcompany.yourproject.backend.businessLayer.components;
 
 import java.awt.Color;
 import java.awt.Point;
+import java.lang.ref.WeakReference;
 import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
 
 public class Connector {
@@ -24,6 +25,11 @@ public class Connector {
     private transient Object fromGateUI;
     private transient Object toGateUI;
 
+    // Circuit whose wire list holds this wire; rewiring changes its structure.
+    // Weak, so caches keyed weakly by the circuit but reaching its wires
+    // through their gates do not keep it alive.
+    private transient WeakReference<Circuit> owner;
+
     // ===== CONSTRUCTORS =====
 
     public Connector(String name, Color color, Point source, Point sink) {
@@ -193,12 +199,16 @@ public class Connector {
     }
 
     public void setFromGate(GateComponent fromGate) {
+        if (sourceGate != null && sourceGate != fromGate && sourcePort >= 0) {
+            sourceGate.detachOutputConnector(sourcePort, this);
+        }
 
         this.sourceGate = fromGate;
         recalculateWirePositions();
         if (fromGate != null && sourcePort >= 0) {
             fromGate.attachOutputConnector(sourcePort, this);
         }
+        structureChanged();
     }
 
     public GateComponent getToGate() {
@@ -206,11 +216,15 @@ public class Connector {
     }
 
     public void setToGate(GateComponent toGate) {
+        if (destGate != null && destGate != toGate) {
+            detachFromDestination();
+        }
         this.destGate = toGate;
         recalculateWirePositions();
         if (toGate != null && destPort >= 0) {
             toGate.attachInputConnector(destPort, this);
         }
+        structureChanged();
     }
 
     public int getSourcePortIndex() {
@@ -218,11 +232,15 @@ public class Connector {
     }
 
     public void setSourcePortIndex(int fromPort) {
+        if (sourceGate != null && sourcePort != fromPort) {
+            sourceGate.detachOutputConnector(sourcePort, this);
+        }
         this.sourcePort = fromPort;
         recalculateWirePositions();
         if (sourceGate != null) {
             sourceGate.attachOutputConnector(fromPort, this);
         }
+        structureChanged();
     }
 
     public int getDestinationPortIndex() {
@@ -230,11 +248,39 @@ public class Connector {
     }
 
     public void setDestinationPortIndex(int toPort) {
+        if (destGate != null && destPort != toPort) {
+            detachFromDestination();
+        }
         this.destPort = toPort;
         recalculateWirePositions();
         if (destGate != null) {
             destGate.attachInputConnector(toPort, this);
         }
+        structureChanged();
+    }
+
+    private void detachFromDestination() {
+        if (destPort >= 0 && destPort < destGate.getInputs() && destGate.getInputWire(destPort) == this) {
+            destGate.attachInputConnector(destPort, null);
+        }
+    }
+
+    /**
+     * Set by the circuit that adds this wire to its wire list, and cleared when
+     * it removes it
+     */
+    void setOwner(Circuit owner) {
+        this.owner = owner == null ? null : new WeakReference<>(owner);
+    }
+
+    /**
+     * Invalidate whatever the owning circuit derived from its structure
+     */
+    private void structureChanged() {
+        Circuit circuit = owner == null ? null : owner.get();
+        if (circuit != null) {
+            circuit.markStructureChanged();
+        }
     }
 
     public Boolean getSignalValue() {
@@ -254,10 +300,7 @@ public class Connector {
     // Disconnect this wire from both gates
     public void disconnectWire() {
         if (sourceGate != null && sourcePort >= 0) {
-            Connector currentConnector = sourceGate.getOutputWire(sourcePort);
-            if (currentConnector == this) {
-                sourceGate.attachOutputConnector(sourcePort, null);
-            }
+            sourceGate.detachOutputConnector(sourcePort, this);
         }
         if (destGate != null && destPort >= 0) {
             Connector currentConnector = destGate.getInputWire(destPort);
@@ -270,6 +313,7 @@ public class Connector {
         destGate = null;
         fromGateUI = null;
         toGateUI = null;
+        structureChanged();
     }
 
     // Check if wire is properly connected
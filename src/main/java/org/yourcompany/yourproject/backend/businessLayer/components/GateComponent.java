@@ -1,19 +1,26 @@
 package org.yourcompany.yourproject.backend.businessLayer.components;
 
 import java.awt.Point;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class GateComponent {
+    private static final AtomicInteger NEXT_TRACE_ID = new AtomicInteger(1);
+
     private String id; // Unique identifier for the component
+    private final int traceId = NEXT_TRACE_ID.getAndIncrement(); // Compact id for SimulationTrace events
     private String name;
-    private List<Boolean> inputValues;
-    private List<Boolean> outputValues;
+    private boolean[] inputValues; // Port values kept primitive; List views wrap them
+    private boolean[] outputValues;
     private int input;
     private int output;
     private Point posi;
     private List<Connector> inputConnectorsList; // Wires connected to inputs
-    private List<Connector> outputConnectorsList; // Wires connected to outputs
+    private Net[] outputNets; // One net per output port, fanning out to any number of wires
+    private boolean holdOutputs; // Set while evaluating in place; outputs are not pushed onto the nets
 
     // ===== CONSTRUCTOR AND INITIALIZATION =====
 
@@ -25,21 +32,19 @@ public abstract class GateComponent {
         this.input = inputs;
         this.output = outputs;
 
-        this.inputValues = new ArrayList<>();
-        this.outputValues = new ArrayList<>();
+        // Input/output values start out false
+        this.inputValues = new boolean[Math.max(0, inputs)];
+        this.outputValues = new boolean[Math.max(0, outputs)];
 
         this.inputConnectorsList = new ArrayList<>();
-        this.outputConnectorsList = new ArrayList<>();
+        this.outputNets = new Net[Math.max(0, outputs)];
 
-        // Initialize input/output values to false
         for (int i = 0; i < inputs; i++) {
-            this.inputValues.add(false);
             this.inputConnectorsList.add(null);
         }
 
-        for (int i = 0; i < outputs; i++) {
-            this.outputValues.add(false);
-            this.outputConnectorsList.add(null);
+        for (int i = 0; i < outputNets.length; i++) {
+            this.outputNets[i] = new Net(this, i);
         }
     }
 
@@ -57,6 +62,19 @@ public abstract class GateComponent {
 
     public abstract void update();
 
+    /**
+     * Evaluate this gate from its current inputs without pushing the new
+     * outputs onto its wires, so the caller decides what to re-evaluate next
+     */
+    public void evaluateInPlace() {
+        holdOutputs = true;
+        try {
+            evaluate();
+        } finally {
+            holdOutputs = false;
+        }
+    }
+
     // ===== BASIC PROPERTY ACCESSORS =====
 
     public String getName() {
@@ -99,18 +117,35 @@ public abstract class GateComponent {
         return id;
     }
 
+    /**
+     * Small unique number naming this gate in {@link SimulationTrace} events
+     */
+    public int getTraceId() {
+        return traceId;
+    }
+
     // ===== INPUT VALUE MANAGEMENT =====
 
     public Boolean getInputVal(int index) {
-        if (index >= 0 && index < inputValues.size()) {
-            return inputValues.get(index);
-        }
-        return false;
+        return getInputBit(index);
     }
 
+    /**
+     * Set an input and recompute the outputs, which propagates depth-first
+     * through everything downstream. While a {@link PropagationScheduler} is
+     * active on this thread the gate is only marked dirty instead.
+     */
     public void setInputVal(int index, Boolean value) {
-        if (index >= 0 && index < inputValues.size()) {
-            inputValues.set(index, value);
+        if (index >= 0 && index < inputValues.length) {
+            boolean bit = value != null && value;
+            PropagationScheduler scheduler = PropagationScheduler.current();
+            if (scheduler != null) {
+                boolean changed = inputValues[index] != bit;
+                inputValues[index] = bit;
+                scheduler.inputWritten(this, changed);
+                return;
+            }
+            inputValues[index] = bit;
             // When input changes, recompute output
             calculateOutput();
         }
@@ -120,35 +155,45 @@ public abstract class GateComponent {
      * Set input value directly without triggering computeOutput (for copying state)
      */
     public void assignInputDirectly(int index, Boolean value) {
-        if (index >= 0 && index < inputValues.size()) {
-            inputValues.set(index, value);
-            // Don't call computeOutput here - that's the key difference
+        assignInputBit(index, value != null && value);
+    }
+
+    /**
+     * Allocation-free read of an input port; out-of-range ports read false
+     */
+    public boolean getInputBit(int index) {
+        return index >= 0 && index < inputValues.length && inputValues[index];
+    }
+
+    /**
+     * Allocation-free write of an input port without recomputing the output
+     */
+    public void assignInputBit(int index, boolean value) {
+        if (index >= 0 && index < inputValues.length) {
+            inputValues[index] = value;
         }
     }
 
     public List<Boolean> getInputVal() {
-        return new ArrayList<>(inputValues);
+        return new ArrayList<>(getInputDirectly());
     }
 
     /**
-     * Get direct access to input values list (package-private)
+     * Get a live view of the input values; writes do not trigger computeOutput
      */
     public List<Boolean> getInputDirectly() {
-        return inputValues;
+        return new PortValueView(inputValues);
     }
 
     // ===== OUTPUT VALUE MANAGEMENT =====
 
     public Boolean getOutputVal(int index) {
-        if (index >= 0 && index < outputValues.size()) {
-            return outputValues.get(index);
-        }
-        return false;
+        return getOutputBit(index);
     }
 
     public void setOutputVal(int index, Boolean value) {
-        if (index >= 0 && index < outputValues.size()) {
-            outputValues.set(index, value);
+        if (index >= 0 && index < outputValues.length) {
+            outputValues[index] = value != null && value;
             // Propagate output signal to connected wires
             transmitOutputSignal(index);
         }
@@ -158,21 +203,87 @@ public abstract class GateComponent {
      * Set output value directly without triggering propagation (for copying state)
      */
     public void assignOutputDirectly(int index, Boolean value) {
-        if (index >= 0 && index < outputValues.size()) {
-            outputValues.set(index, value);
-            // Don't call propagateOutput here
+        assignOutputBit(index, value != null && value);
+    }
+
+    /**
+     * Allocation-free read of an output port; out-of-range ports read false
+     */
+    public boolean getOutputBit(int index) {
+        return index >= 0 && index < outputValues.length && outputValues[index];
+    }
+
+    /**
+     * Allocation-free write of an output port without propagating it
+     */
+    public void assignOutputBit(int index, boolean value) {
+        if (index >= 0 && index < outputValues.length) {
+            outputValues[index] = value;
         }
     }
 
+    // ===== PACKED STATE =====
+
+    /**
+     * Number of bits {@link #packPorts} writes
+     */
+    int getPortBitCount() {
+        return inputValues.length + outputValues.length;
+    }
+
+    /**
+     * Write the port values, inputs then outputs, into consecutive bits
+     * starting at {@code bit}
+     *
+     * @return the bit after the last one written
+     */
+    int packPorts(long[] words, int bit) {
+        bit = packBits(inputValues, words, bit);
+        return packBits(outputValues, words, bit);
+    }
+
+    /**
+     * Read the port values back from bits laid out by {@link #packPorts},
+     * leaving ports whose bit is set in {@code keep} untouched
+     *
+     * @param keep mask in the same layout, or null to restore every port
+     * @return the bit after the last one read
+     */
+    int unpackPorts(long[] words, long[] keep, int bit) {
+        bit = unpackBits(words, keep, inputValues, bit);
+        return unpackBits(words, keep, outputValues, bit);
+    }
+
+    private static int packBits(boolean[] values, long[] words, int bit) {
+        for (boolean value : values) {
+            if (value) {
+                words[bit >>> 6] |= 1L << bit;
+            } else {
+                words[bit >>> 6] &= ~(1L << bit);
+            }
+            bit++;
+        }
+        return bit;
+    }
+
+    private static int unpackBits(long[] words, long[] keep, boolean[] values, int bit) {
+        for (int i = 0; i < values.length; i++, bit++) {
+            if (keep == null || (keep[bit >>> 6] & (1L << bit)) == 0) {
+                values[i] = (words[bit >>> 6] & (1L << bit)) != 0;
+            }
+        }
+        return bit;
+    }
+
     public List<Boolean> getOutputValues() {
-        return new ArrayList<>(outputValues);
+        return new ArrayList<>(getOutputDirectly());
     }
 
     /**
-     * Get direct access to output values list (package-private)
+     * Get a live view of the output values; writes do not propagate
      */
     public List<Boolean> getOutputDirectly() {
-        return outputValues;
+        return new PortValueView(outputValues);
     }
 
     // ===== CONNECTOR MANAGEMENT =====
@@ -183,9 +294,26 @@ public abstract class GateComponent {
         }
     }
 
+    /**
+     * Add a wire to the net of an output port. Passing null disconnects every
+     * wire from the port.
+     */
     public void attachOutputConnector(int portIndex, Connector wire) {
-        if (portIndex >= 0 && portIndex < outputConnectorsList.size()) {
-            outputConnectorsList.set(portIndex, wire);
+        if (portIndex >= 0 && portIndex < outputNets.length) {
+            if (wire == null) {
+                outputNets[portIndex].clearSinks();
+            } else {
+                outputNets[portIndex].addSink(wire);
+            }
+        }
+    }
+
+    /**
+     * Remove one wire from the net of an output port
+     */
+    public void detachOutputConnector(int portIndex, Connector wire) {
+        if (portIndex >= 0 && portIndex < outputNets.length) {
+            outputNets[portIndex].removeSink(wire);
         }
     }
 
@@ -196,9 +324,20 @@ public abstract class GateComponent {
         return null;
     }
 
+    /**
+     * First wire on an output port, or null if the port drives nothing. Use
+     * {@link #getOutputNet(int)} to see every wire it drives.
+     */
     public Connector getOutputWire(int portIndex) {
-        if (portIndex >= 0 && portIndex < outputConnectorsList.size()) {
-            return outputConnectorsList.get(portIndex);
+        if (portIndex >= 0 && portIndex < outputNets.length && !outputNets[portIndex].isEmpty()) {
+            return outputNets[portIndex].getSink(0);
+        }
+        return null;
+    }
+
+    public Net getOutputNet(int portIndex) {
+        if (portIndex >= 0 && portIndex < outputNets.length) {
+            return outputNets[portIndex];
         }
         return null;
     }
@@ -207,20 +346,23 @@ public abstract class GateComponent {
         return new ArrayList<>(inputConnectorsList);
     }
 
+    /**
+     * Every wire driven by this gate, port by port
+     */
     public List<Connector> getOutputConnectors() {
-        return new ArrayList<>(outputConnectorsList);
+        List<Connector> connectors = new ArrayList<>();
+        for (Net net : outputNets) {
+            connectors.addAll(net.getSinks());
+        }
+        return connectors;
     }
 
     // ===== SIGNAL PROPAGATION =====
 
-    // Propagate output signal to connected wires
+    // Propagate output signal to every wire on the port's net
     private void transmitOutputSignal(int outputIndex) {
-        Connector wire = getOutputWire(outputIndex);
-
-        if (wire != null && wire.getToGate() != null) {
-            Boolean outputValue = getOutputVal(outputIndex);
-            int inputPortIndex = wire.getDestinationPortIndex();
-            wire.getToGate().setInputVal(inputPortIndex, outputValue);
+        if (!holdOutputs && outputIndex >= 0 && outputIndex < outputNets.length) {
+            outputNets[outputIndex].transmit(getOutputBit(outputIndex));
         }
     }
 
@@ -263,13 +405,13 @@ public abstract class GateComponent {
     // ===== CONVENIENCE METHODS =====
     // Add a helper to get single output (for 1-output gates)
     public Boolean getOutput() {
-        return output > 0 ? outputValues.get(0) : false;
+        return output > 0 && getOutputBit(0);
     }
 
     public void setOutput(Boolean value) {
 
-        if (output > 0) {
-            outputValues.set(0, value);
+        if (output > 0 && outputValues.length > 0) {
+            outputValues[0] = value != null && value;
             transmitOutputSignal(0);
         }
     }
@@ -278,4 +420,34 @@ public abstract class GateComponent {
         // TODO Auto-generated method stub
         throw new UnsupportedOperationException("Unimplemented method 'computeOutput'");
     }
+
+    // ===== PORT VALUE VIEW =====
+
+    /**
+     * Fixed-size List view over a primitive port array
+     */
+    private static final class PortValueView extends AbstractList<Boolean> implements RandomAccess {
+        private final boolean[] values;
+
+        PortValueView(boolean[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Boolean get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public Boolean set(int index, Boolean value) {
+            Boolean previous = values[index];
+            values[index] = value != null && value;
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Outcome of {@link Circuit#applyInputChange}: the output nets that changed
+ * and whether the fan-out cone settled. A cone that is still moving when the
+ * visit budget runs out, such as a ring oscillator, reports itself unsettled;
+ * its nets then hold whatever values the last visit left behind.
+ */
+public final class InputChange {
+
+    private final Set<Net> changedNets;
+    private final boolean settled;
+
+    InputChange(Set<Net> changedNets, boolean settled) {
+        this.changedNets = Collections.unmodifiableSet(changedNets);
+        this.settled = settled;
+    }
+
+    /**
+     * @return the output nets whose value changed, in the order they changed
+     */
+    public Set<Net> getChangedNets() {
+        return changedNets;
+    }
+
+    /**
+     * @return false if the visit budget ran out with gates still pending
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+}
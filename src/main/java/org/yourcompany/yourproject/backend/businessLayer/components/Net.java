@@ -0,0 +1,93 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The signal leaving one output port: a single driver and every wire it
+ * feeds. Sinks are kept in an indexed list so propagation walks them directly.
+ */
+public class Net {
+    private final GateComponent driver;
+    private final int driverPort;
+    private final List<Connector> sinks = new ArrayList<>(1);
+
+    public Net(GateComponent driver, int driverPort) {
+        this.driver = driver;
+        this.driverPort = driverPort;
+    }
+
+    // ===== DRIVER =====
+
+    public GateComponent getDriver() {
+        return driver;
+    }
+
+    public int getDriverPort() {
+        return driverPort;
+    }
+
+    // ===== SINK MANAGEMENT =====
+
+    public void addSink(Connector wire) {
+        if (wire != null && !containsSink(wire)) {
+            sinks.add(wire);
+        }
+    }
+
+    public boolean removeSink(Connector wire) {
+        for (int i = 0; i < sinks.size(); i++) {
+            if (sinks.get(i) == wire) {
+                sinks.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean containsSink(Connector wire) {
+        for (int i = 0; i < sinks.size(); i++) {
+            if (sinks.get(i) == wire) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clearSinks() {
+        sinks.clear();
+    }
+
+    public int getSinkCount() {
+        return sinks.size();
+    }
+
+    public Connector getSink(int index) {
+        return sinks.get(index);
+    }
+
+    public boolean isEmpty() {
+        return sinks.isEmpty();
+    }
+
+    public List<Connector> getSinks() {
+        return Collections.unmodifiableList(sinks);
+    }
+
+    // ===== SIGNAL PROPAGATION =====
+
+    /**
+     * Push a value to every gate input on this net
+     */
+    public void transmit(boolean value) {
+        for (int i = 0; i < sinks.size(); i++) {
+            Connector wire = sinks.get(i);
+            GateComponent sink = wire.getToGate();
+            if (sink != null) {
+                wire.setSignalValue(value);
+                sink.setInputVal(wire.getDestinationPortIndex(), value);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Insertion-ordered collection indexed by identity and by id, backing the gate
+ * and wire lists of a {@link Circuit}.
+ *
+ * Add, remove, contains and id lookup are O(1). Removal leaves a hole that is
+ * closed on the next positional read, so removing many elements in a row costs
+ * one compaction rather than one shift each. {@link #view()} is a read-only
+ * List in insertion order that fails fast when iterated across a change.
+ */
+final class OrderedIndex<T> {
+
+    private final Function<T, String> idOf;
+    private final ArrayList<T> items = new ArrayList<>();
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private final Map<String, T> byId = new HashMap<>();
+    private final View view = new View();
+    private int holes;
+    private boolean duplicateIds;
+
+    OrderedIndex(Function<T, String> idOf) {
+        this.idOf = idOf;
+    }
+
+    // ===== MODIFICATION =====
+
+    /**
+     * @return false if the element is null or already present
+     */
+    boolean add(T item) {
+        if (item == null || positions.containsKey(item)) {
+            return false;
+        }
+        positions.put(item, items.size());
+        items.add(item);
+        String id = idOf.apply(item);
+        if (id != null && byId.putIfAbsent(id, item) != null) {
+            duplicateIds = true;
+        }
+        view.changed();
+        return true;
+    }
+
+    boolean remove(T item) {
+        Integer position = item == null ? null : positions.remove(item);
+        if (position == null) {
+            return false;
+        }
+        items.set(position, null);
+        holes++;
+
+        String id = idOf.apply(item);
+        if (id != null && byId.get(id) == item) {
+            byId.remove(id);
+            if (duplicateIds) {
+                // Rare: another element carries the same id and now answers for it
+                for (T other : items) {
+                    if (other != null && id.equals(idOf.apply(other))) {
+                        byId.put(id, other);
+                        break;
+                    }
+                }
+            }
+        }
+        view.changed();
+        return true;
+    }
+
+    void clear() {
+        items.clear();
+        positions.clear();
+        byId.clear();
+        holes = 0;
+        duplicateIds = false;
+        view.changed();
+    }
+
+    // ===== LOOKUP =====
+
+    boolean contains(Object item) {
+        return item != null && positions.containsKey(item);
+    }
+
+    /**
+     * First element added with the id that is still present, or null
+     */
+    T get(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    int size() {
+        return positions.size();
+    }
+
+    List<T> view() {
+        return view;
+    }
+
+    private void compact() {
+        if (holes == 0) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item != null) {
+                items.set(next, item);
+                positions.put(item, next);
+                next++;
+            }
+        }
+        items.subList(next, items.size()).clear();
+        holes = 0;
+    }
+
+    // ===== INNER CLASSES =====
+
+    private final class View extends AbstractList<T> implements RandomAccess {
+
+        void changed() {
+            modCount++;
+        }
+
+        @Override
+        public T get(int index) {
+            compact();
+            return items.get(index);
+        }
+
+        @Override
+        public int size() {
+            return positions.size();
+        }
+
+        @Override
+        public boolean contains(Object item) {
+            return OrderedIndex.this.contains(item);
+        }
+
+        @Override
+        public int indexOf(Object item) {
+            compact();
+            Integer position = item == null ? null : positions.get(item);
+            return position != null ? position : -1;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Iterative replacement for the recursive propagation of
+ * {@link GateComponent#setInputVal}.
+ *
+ * Normally an input write evaluates the gate, which writes its outputs, which
+ * write the inputs of every sink, and so on depth-first: long chains overflow
+ * the stack and shared fan-out is re-evaluated once per path. While a
+ * scheduler is active on the current thread, an input write only stores the
+ * value and marks the gate dirty. Each {@link #step()} then evaluates every
+ * gate that was dirty when the step began exactly once; the writes those
+ * evaluations make mark the next step's gates.
+ *
+ * <pre>
+ * PropagationScheduler scheduler = new PropagationScheduler();
+ * boolean settled = scheduler.execute(() -&gt; gate.setInputVal(0, true));
+ * </pre>
+ *
+ * A scheduler is confined to the thread that uses it.
+ */
+public final class PropagationScheduler {
+
+    /** Steps allowed per distinct gate marked dirty, unless a limit is set */
+    public static final int STEPS_PER_GATE = 100;
+
+    private static final ThreadLocal<PropagationScheduler> ACTIVE = new ThreadLocal<>();
+
+    private ArrayDeque<GateComponent> dirty = new ArrayDeque<>();
+    private ArrayDeque<GateComponent> running = new ArrayDeque<>();
+    private final Set<GateComponent> marked = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<GateComponent> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int stepLimit;
+    private long steps;
+    private long evaluations;
+
+    // ===== ACTIVATION =====
+
+    /**
+     * Scheduler active on the current thread, or null for recursive
+     * propagation
+     */
+    static PropagationScheduler current() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Run writes with this scheduler active, then step until nothing is dirty
+     *
+     * @return true if propagation settled, false if the step limit was hit
+     *         (the circuit oscillates)
+     */
+    public boolean execute(Runnable writes) {
+        schedule(writes);
+        return run();
+    }
+
+    /**
+     * Run writes with this scheduler active without propagating them, so the
+     * caller can {@link #step()} through the result
+     */
+    public void schedule(Runnable writes) {
+        PropagationScheduler previous = ACTIVE.get();
+        ACTIVE.set(this);
+        try {
+            writes.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(PropagationScheduler previous) {
+        if (previous == null) {
+            ACTIVE.remove();
+        } else {
+            ACTIVE.set(previous);
+        }
+    }
+
+    // ===== SCHEDULING =====
+
+    /**
+     * Queue a gate for evaluation in the next step; a gate already queued is
+     * not queued twice
+     */
+    public void markDirty(GateComponent gate) {
+        if (gate != null && marked.add(gate)) {
+            dirty.add(gate);
+            seen.add(gate);
+        }
+    }
+
+    /**
+     * Called by {@link GateComponent#setInputVal} instead of evaluating. A
+     * gate this scheduler has not seen yet is always evaluated once, since its
+     * outputs may be stale; after that only a changed input dirties it, which
+     * lets a stable feedback loop settle.
+     */
+    void inputWritten(GateComponent gate, boolean changed) {
+        if (changed || !seen.contains(gate)) {
+            markDirty(gate);
+        }
+    }
+
+    /**
+     * Evaluate every gate that is dirty now, once each
+     *
+     * @return true if the evaluations made more gates dirty
+     */
+    public boolean step() {
+        ArrayDeque<GateComponent> batch = dirty;
+        dirty = running;
+        running = batch;
+        marked.clear();
+
+        PropagationScheduler previous = ACTIVE.get();
+        ACTIVE.set(this);
+        try {
+            while (!batch.isEmpty()) {
+                batch.poll().evaluate();
+                evaluations++;
+            }
+        } finally {
+            restore(previous);
+        }
+        steps++;
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Step until nothing is dirty or the step limit is reached
+     *
+     * @return true if propagation settled
+     */
+    public boolean run() {
+        long taken = 0;
+        while (!dirty.isEmpty()) {
+            if (taken >= getEffectiveStepLimit()) {
+                return false;
+            }
+            step();
+            taken++;
+        }
+        return true;
+    }
+
+    // ===== LIMITS AND STATISTICS =====
+
+    /**
+     * Steps one {@link #run()} may take; 0 (the default) allows
+     * {@link #STEPS_PER_GATE} per distinct gate seen, which always covers the
+     * depth of an acyclic circuit
+     */
+    public void setStepLimit(int stepLimit) {
+        this.stepLimit = Math.max(0, stepLimit);
+    }
+
+    public int getStepLimit() {
+        return stepLimit;
+    }
+
+    private long getEffectiveStepLimit() {
+        return stepLimit > 0 ? stepLimit : (long) STEPS_PER_GATE * Math.max(1, seen.size());
+    }
+
+    public boolean isSettled() {
+        return dirty.isEmpty();
+    }
+
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
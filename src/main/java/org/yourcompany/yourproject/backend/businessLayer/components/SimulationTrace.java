@@ -0,0 +1,256 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary trace of simulation events, replacing debug printing on the
+ * simulation paths.
+ *
+ * While disabled, {@link #record} is one volatile read. While enabled, each
+ * event takes two longs in a fixed-size ring buffer, so a trace never grows
+ * and the oldest events are overwritten first. Events name gates by
+ * {@link GateComponent#getTraceId()}; {@link #dump} turns those back into
+ * names from a circuit hierarchy.
+ *
+ * Event layout: word 0 holds the gate trace id in the high 32 bits, then the
+ * port (16 bits), the kind (8 bits), the old value (bit 1) and the new value
+ * (bit 0); word 1 holds the iteration as given by the caller.
+ */
+public final class SimulationTrace {
+
+    // ===== EVENT KINDS =====
+
+    /** A subcircuit evaluated its definition; iteration is unused */
+    public static final int EVALUATE = 1;
+    /** A subcircuit input was copied onto a port inside its definition */
+    public static final int INPUT = 2;
+    /** A subcircuit output was read back from its definition */
+    public static final int OUTPUT = 3;
+    /** A gate output changed during a simulation pass; iteration is the pass */
+    public static final int SIGNAL = 4;
+    /** A gate output kept oscillating; iteration is the 64-row block */
+    public static final int OSCILLATION = 5;
+    /** A block of 64 truth table rows was simulated; iteration is the block */
+    public static final int BLOCK = 6;
+    /** Evaluation failed */
+    public static final int ERROR = 7;
+
+    private static final String[] KIND_NAMES = { "?", "EVALUATE", "INPUT", "OUTPUT", "SIGNAL", "OSCILLATION",
+            "BLOCK", "ERROR" };
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static volatile Buffer buffer;
+
+    private SimulationTrace() {
+    }
+
+    // ===== CONTROL =====
+
+    /**
+     * Start recording into a new ring buffer of the given number of events,
+     * discarding any previous trace
+     */
+    public static void enable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Trace capacity must be positive: " + capacity);
+        }
+        buffer = new Buffer(capacity);
+    }
+
+    public static void enable() {
+        enable(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Stop recording and drop the trace
+     */
+    public static void disable() {
+        buffer = null;
+    }
+
+    public static boolean isEnabled() {
+        return buffer != null;
+    }
+
+    public static void clear() {
+        Buffer current = buffer;
+        if (current != null) {
+            current.clear();
+        }
+    }
+
+    // ===== RECORDING =====
+
+    /**
+     * Record one event if tracing is enabled
+     *
+     * @param gate gate the event is about, or null
+     */
+    public static void record(int kind, GateComponent gate, int port, boolean oldValue, boolean newValue,
+            long iteration) {
+        Buffer current = buffer;
+        if (current != null) {
+            long word = ((long) (gate == null ? 0 : gate.getTraceId()) << 32)
+                    | ((long) (port & 0xFFFF) << 16)
+                    | ((kind & 0xFF) << 8)
+                    | (oldValue ? 2 : 0)
+                    | (newValue ? 1 : 0);
+            current.add(word, iteration);
+        }
+    }
+
+    // ===== READING =====
+
+    /**
+     * Number of events recorded since the trace was enabled or cleared,
+     * including those the ring buffer has since overwritten
+     */
+    public static long getRecordedCount() {
+        Buffer current = buffer;
+        return current == null ? 0 : current.count();
+    }
+
+    /**
+     * Events still in the ring buffer, oldest first
+     */
+    public static List<Event> snapshot() {
+        Buffer current = buffer;
+        return current == null ? Collections.emptyList() : current.events();
+    }
+
+    /**
+     * Print the buffered events, oldest first
+     *
+     * @param circuit hierarchy used to name gates; may be null, in which case
+     *                gates are printed by trace id
+     */
+    public static void dump(PrintStream out, Circuit circuit) {
+        Map<Integer, String> names = new HashMap<>();
+        if (circuit != null) {
+            collectNames(circuit, "", names, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+        List<Event> events = snapshot();
+        out.println("=== Simulation trace: " + events.size() + " of " + getRecordedCount() + " events ===");
+        for (Event event : events) {
+            String gate = event.getGateId() == 0 ? "-"
+                    : names.getOrDefault(event.getGateId(), "#" + event.getGateId());
+            out.println(event.getKindName() + " " + gate + " port " + event.getPort() + " "
+                    + (event.getOldValue() ? 1 : 0) + "->" + (event.getNewValue() ? 1 : 0)
+                    + " iteration " + event.getIteration());
+        }
+    }
+
+    private static void collectNames(Circuit circuit, String prefix, Map<Integer, String> names,
+            Set<Circuit> visited) {
+        if (!visited.add(circuit)) {
+            return;
+        }
+        for (GateComponent gate : circuit.getGates()) {
+            names.putIfAbsent(gate.getTraceId(), prefix + gate.getName());
+            if (gate instanceof SubcircuitComponent) {
+                Circuit inner = ((SubcircuitComponent) gate).getReferencedCircuit();
+                if (inner != null) {
+                    collectNames(inner, prefix + gate.getName() + "/", names, visited);
+                }
+            }
+        }
+        visited.remove(circuit);
+    }
+
+    // ===== INNER CLASSES =====
+
+    /**
+     * One decoded trace event
+     */
+    public static final class Event {
+        private final long word;
+        private final long iteration;
+
+        Event(long word, long iteration) {
+            this.word = word;
+            this.iteration = iteration;
+        }
+
+        public int getKind() {
+            return (int) (word >>> 8) & 0xFF;
+        }
+
+        public String getKindName() {
+            int kind = getKind();
+            return kind < KIND_NAMES.length ? KIND_NAMES[kind] : "?";
+        }
+
+        /**
+         * Trace id of the gate, 0 when the event is not about a gate
+         */
+        public int getGateId() {
+            return (int) (word >>> 32);
+        }
+
+        public int getPort() {
+            return (int) (word >>> 16) & 0xFFFF;
+        }
+
+        public boolean getOldValue() {
+            return (word & 2) != 0;
+        }
+
+        public boolean getNewValue() {
+            return (word & 1) != 0;
+        }
+
+        public long getIteration() {
+            return iteration;
+        }
+
+        @Override
+        public String toString() {
+            return getKindName() + " #" + getGateId() + " port " + getPort() + " " + (getOldValue() ? 1 : 0) + "->"
+                    + (getNewValue() ? 1 : 0) + " iteration " + iteration;
+        }
+    }
+
+    private static final class Buffer {
+        private final long[] words;
+        private final int capacity;
+        private long count;
+
+        Buffer(int capacity) {
+            this.capacity = capacity;
+            this.words = new long[2 * capacity];
+        }
+
+        synchronized void add(long word, long iteration) {
+            int slot = (int) (count % capacity) * 2;
+            words[slot] = word;
+            words[slot + 1] = iteration;
+            count++;
+        }
+
+        synchronized void clear() {
+            count = 0;
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized List<Event> events() {
+            int size = (int) Math.min(count, capacity);
+            List<Event> events = new ArrayList<>(size);
+            for (long i = count - size; i < count; i++) {
+                int slot = (int) (i % capacity) * 2;
+                events.add(new Event(words[slot], words[slot + 1]));
+            }
+            return events;
+        }
+    }
+}
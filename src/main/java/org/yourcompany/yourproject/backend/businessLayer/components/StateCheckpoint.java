@@ -0,0 +1,161 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Port values of a circuit hierarchy packed into one bit vector.
+ *
+ * The layout is worked out once: every gate of the circuit and of each nested
+ * definition (shared definitions once), inputs then outputs. Capturing and
+ * restoring are then a single pass over a flat gate array that copies bits
+ * directly, without walking the hierarchy, evaluating gates or propagating
+ * anything. Resetting between vectors thus costs a copy rather than a
+ * re-simulation.
+ *
+ * A checkpoint belongs to the structure it was laid out for; once a circuit in
+ * the hierarchy changes, {@link #restore()} refuses and a new checkpoint is
+ * needed.
+ */
+public final class StateCheckpoint {
+
+    private final GateComponent[] gates;
+    private final Circuit[] circuits;
+    private final int[] structureVersions;
+    private final int bitCount;
+    private final long[] state;
+    private final long[] keep; // ports restore leaves alone, or null
+
+    private StateCheckpoint(GateComponent[] gates, Circuit[] circuits, long[] keep) {
+        this.gates = gates;
+        this.circuits = circuits;
+        this.structureVersions = new int[circuits.length];
+        for (int i = 0; i < circuits.length; i++) {
+            structureVersions[i] = circuits[i].getStructureVersion();
+        }
+        int bits = 0;
+        for (GateComponent gate : gates) {
+            bits += gate.getPortBitCount();
+        }
+        this.bitCount = bits;
+        this.state = new long[(bits + 63) >>> 6];
+        this.keep = keep;
+    }
+
+    // ===== CREATION =====
+
+    /**
+     * Lay out a checkpoint for a circuit and its nested definitions and capture
+     * their current port values
+     */
+    public static StateCheckpoint capture(Circuit circuit) {
+        List<GateComponent> gates = new ArrayList<>();
+        List<Circuit> circuits = new ArrayList<>();
+        collect(circuit, gates, circuits, Collections.newSetFromMap(new IdentityHashMap<>()));
+        StateCheckpoint checkpoint = new StateCheckpoint(gates.toArray(new GateComponent[0]),
+                circuits.toArray(new Circuit[0]), null);
+        checkpoint.capture();
+        return checkpoint;
+    }
+
+    private static void collect(Circuit circuit, List<GateComponent> gates, List<Circuit> circuits,
+            Set<Circuit> visited) {
+        if (!visited.add(circuit)) {
+            return;
+        }
+        circuits.add(circuit);
+        for (GateComponent gate : circuit.getGates()) {
+            gates.add(gate);
+            if (gate instanceof SubcircuitComponent) {
+                Circuit inner = ((SubcircuitComponent) gate).getReferencedCircuit();
+                if (inner != null) {
+                    collect(inner, gates, circuits, visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * All-low state for the gates of one circuit, restored before each
+     * {@link Circuit#evaluate()}. Input ports fed from outside the circuit are
+     * kept, since they carry the values being evaluated.
+     */
+    static StateCheckpoint cleared(Circuit circuit, List<GateComponent> members) {
+        GateComponent[] gates = members.toArray(new GateComponent[0]);
+        int bits = 0;
+        for (GateComponent gate : gates) {
+            bits += gate.getPortBitCount();
+        }
+        long[] keep = new long[(bits + 63) >>> 6];
+        int bit = 0;
+        for (GateComponent gate : gates) {
+            for (int port = 0; port < gate.getInputs(); port++, bit++) {
+                Connector wire = gate.getInputWire(port);
+                if (wire == null || !circuit.isMember(wire.getFromGate())) {
+                    keep[bit >>> 6] |= 1L << bit;
+                }
+            }
+            bit += gate.getPortBitCount() - gate.getInputs();
+        }
+        return new StateCheckpoint(gates, new Circuit[] { circuit }, keep);
+    }
+
+    // ===== CAPTURE AND RESTORE =====
+
+    /**
+     * Overwrite the checkpoint with the current port values
+     */
+    public void capture() {
+        int bit = 0;
+        for (GateComponent gate : gates) {
+            bit = gate.packPorts(state, bit);
+        }
+    }
+
+    /**
+     * Write the checkpointed values back into every port
+     *
+     * @return false, changing nothing, if a circuit in the hierarchy changed
+     *         structure since the checkpoint was laid out
+     */
+    public boolean restore() {
+        if (!isCurrent()) {
+            return false;
+        }
+        int bit = 0;
+        for (GateComponent gate : gates) {
+            bit = gate.unpackPorts(state, keep, bit);
+        }
+        return true;
+    }
+
+    public boolean isCurrent() {
+        for (int i = 0; i < circuits.length; i++) {
+            if (circuits[i].getStructureVersion() != structureVersions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ===== ACCESSORS =====
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    public int getGateCount() {
+        return gates.length;
+    }
+
+    /**
+     * Copy of the packed state: for gate after gate in layout order, its
+     * inputs then its outputs
+     */
+    public long[] getState() {
+        return state.clone();
+    }
+}
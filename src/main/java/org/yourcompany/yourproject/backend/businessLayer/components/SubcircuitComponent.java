@@ -1,28 +1,27 @@
 package org.yourcompany.yourproject.backend.businessLayer.components;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 public class SubcircuitComponent extends GateComponent {
+    // Optional memo per definition, shared by every instance of the same circuit
+    private static final Map<Circuit, SubcircuitMemo> MEMOS = Collections.synchronizedMap(new WeakHashMap<>());
+
     private Circuit referencedCircuit;
     private String circuitName;
 
+    // Port bits of the shared definition as this instance last left them
+    private long[] instanceState;
+    private int instanceStateVersion = -1;
+
     // ===== CONSTRUCTOR AND INITIALIZATION =====
 
     public SubcircuitComponent(Circuit circuit, String name) {
         super("CIRCUIT:" + name, circuitInputCount(circuit), circuitOutputCount(circuit));
         this.referencedCircuit = circuit;
         this.circuitName = name;
-
-        // DEBUG: Print detailed information
-        System.out.println("=== CircuitComponent Created ===");
-        System.out.println("Name: " + name);
-        System.out.println("Inputs: " + getInputs());
-        System.out.println("Outputs: " + getOutputs());
-        if (circuit != null) {
-            System.out.println("Referenced Circuit: " + circuit.getName());
-            circuit.displayCircuitInfo();
-        }
-        System.out.println("===============================");
     }
 
     // ===== ABSTRACT METHOD IMPLEMENTATIONS =====
@@ -40,22 +39,36 @@ public class SubcircuitComponent extends GateComponent {
     @Override
     protected void calculateOutput() {
         if (referencedCircuit != null) {
+            SubcircuitMemo memo = getMemo();
+            if (memo != null && memo.getInputs() == getInputs() && memo.getOutputs() == getOutputs()) {
+                calculateOutputMemoized(memo);
+                return;
+            }
             try {
-                // DEBUG
-                System.out.println("Evaluating CircuitComponent: " + circuitName);
+                SimulationTrace.record(SimulationTrace.EVALUATE, this, 0, false, false, 0);
+
+                // Instances share the live, mutable definition, so only one
+                // drives it at a time
+                synchronized (referencedCircuit.instanceLock) {
+                    // Set the inputs from this component to the referenced circuit
+                    assignSubCircuitInputs();
 
-                // Set the inputs from this component to the referenced circuit
-                assignSubCircuitInputs();
+                    // Evaluate the entire referenced circuit
+                    referencedCircuit.evaluate();
 
-                // Evaluate the entire referenced circuit
-                referencedCircuit.evaluate();
+                    // Get the outputs from the referenced circuit
+                    retrieveSubcircuitOutputs();
 
-                // Get the outputs from the referenced circuit
-                retrieveSubcircuitOutputs();
+                    captureInstanceState();
+                }
 
             } catch (Exception e) {
                 System.err.println("Error evaluating circuit component '" + circuitName + "': " + e.getMessage());
                 e.printStackTrace();
+                if (SimulationTrace.isEnabled()) {
+                    SimulationTrace.record(SimulationTrace.ERROR, this, 0, false, false, 0);
+                    SimulationTrace.dump(System.err, referencedCircuit);
+                }
                 // Fallback: set all outputs to false
                 for (int i = 0; i < getOutputs(); i++) {
                     setOutputVal(i, false);
@@ -64,65 +77,259 @@ public class SubcircuitComponent extends GateComponent {
         }
     }
 
+    /**
+     * Look the inputs up in the memo and only evaluate the circuit on a miss
+     */
+    private void calculateOutputMemoized(SubcircuitMemo memo) {
+        int key = packInputs();
+        long outputs = memo.lookup(referencedCircuit, key);
+        if (outputs == SubcircuitMemo.MISS) {
+            outputs = evaluateDefinition(key);
+            memo.store(key, outputs);
+        }
+        for (int i = 0; i < getOutputs(); i++) {
+            setOutputVal(i, ((outputs >>> i) & 1L) != 0);
+        }
+    }
+
+    /**
+     * New instance of the same definition. The referenced circuit is shared,
+     * not copied: each instance only owns its ports and its state vector, and
+     * a memo enabled for the definition applies to the copy as well. The
+     * definition stays a live circuit, so instances of it evaluate one at a
+     * time under a lock private to that circuit, and edits to it show up in
+     * every instance.
+     */
     @Override
     public GateComponent copy() {
-        // Create a deep copy of the referenced circuit
-        Circuit circuitCopy = referencedCircuit.createCopy(circuitName + "_Copy");
-        return new SubcircuitComponent(circuitCopy, circuitName);
+        SubcircuitComponent copy = new SubcircuitComponent(referencedCircuit, circuitName);
+        for (int i = 0; i < getInputs(); i++) {
+            copy.assignInputBit(i, getInputBit(i));
+        }
+        for (int i = 0; i < getOutputs(); i++) {
+            copy.assignOutputBit(i, getOutputBit(i));
+        }
+        copy.instanceState = instanceState == null ? null : instanceState.clone();
+        copy.instanceStateVersion = instanceStateVersion;
+        return copy;
+    }
+
+    // ===== INSTANCE STATE =====
+
+    /**
+     * Pack the port bits of every gate of the definition, inputs then outputs
+     * in gate order, into this instance's state vector
+     */
+    private void captureInstanceState() {
+        List<GateComponent> gates = referencedCircuit.getGates();
+        int bits = 0;
+        for (GateComponent gate : gates) {
+            bits += gate.getPortBitCount();
+        }
+        int words = (bits + 63) >>> 6;
+        if (instanceState == null || instanceState.length != words) {
+            instanceState = new long[words];
+        }
+
+        int bit = 0;
+        for (GateComponent gate : gates) {
+            bit = gate.packPorts(instanceState, bit);
+        }
+        instanceStateVersion = referencedCircuit.getStructureVersion();
+    }
+
+    /**
+     * Copy this instance's state vector into the shared definition, so that
+     * inspecting the referenced circuit shows this instance's signals
+     *
+     * @return false if the instance has no state for the current structure of
+     *         the definition (not evaluated since it changed)
+     */
+    public boolean restoreInstanceState() {
+        if (referencedCircuit == null) {
+            return false;
+        }
+        synchronized (referencedCircuit.instanceLock) {
+            if (instanceState == null || instanceStateVersion != referencedCircuit.getStructureVersion()) {
+                return false;
+            }
+            int bit = 0;
+            for (GateComponent gate : referencedCircuit.getGates()) {
+                bit = gate.unpackPorts(instanceState, null, bit);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Replace this instance's state vector with one computed elsewhere, such
+     * as by a flattened simulation, in the layout the instance packs itself
+     *
+     * @param structureVersion structure version of the definition the state
+     *                         was laid out for
+     */
+    public void loadInstanceState(long[] state, int structureVersion) {
+        if (referencedCircuit == null) {
+            return;
+        }
+        synchronized (referencedCircuit.instanceLock) {
+            instanceState = state.clone();
+            instanceStateVersion = structureVersion;
+        }
+    }
+
+    /**
+     * This instance's packed state vector as of the last time it evaluated
+     * the definition (memo hits do not), or an empty array before that
+     */
+    public long[] getInstanceState() {
+        return instanceState == null ? new long[0] : instanceState.clone();
+    }
+
+    // ===== MEMOIZATION =====
+
+    /**
+     * Cache outputs by inputs for this definition, shared by every component
+     * referencing the same circuit. Only for up to
+     * {@link SubcircuitMemo#MAX_INPUTS} inputs.
+     *
+     * @param capacity number of input combinations kept, least recently used
+     *                 first out
+     * @throws IllegalArgumentException if the component has more ports than a
+     *                                  memo supports
+     */
+    public void enableMemo(int capacity) {
+        if (referencedCircuit == null) {
+            return;
+        }
+        checkMemoPorts();
+        SubcircuitMemo memo = MEMOS.get(referencedCircuit);
+        int kept = Math.max(1, Math.min(capacity, 1 << getInputs()));
+        if (memo == null || memo.getCapacity() != kept || memo.getInputs() != getInputs()
+                || memo.getOutputs() != getOutputs()) {
+            MEMOS.put(referencedCircuit, new SubcircuitMemo(getInputs(), getOutputs(), kept));
+        }
+    }
+
+    public void disableMemo() {
+        if (referencedCircuit != null) {
+            MEMOS.remove(referencedCircuit);
+        }
+    }
+
+    /**
+     * Memo of this component's definition, or null if memoization is off
+     */
+    public SubcircuitMemo getMemo() {
+        return referencedCircuit == null ? null : MEMOS.get(referencedCircuit);
+    }
+
+    /**
+     * Evaluate every input combination now and keep them all, so later
+     * evaluations never touch the circuit. Enables the memo if needed.
+     *
+     * @throws IllegalArgumentException if the component has more ports than a
+     *                                  memo supports
+     */
+    public void precomputeMemo() {
+        if (referencedCircuit == null) {
+            return;
+        }
+        checkMemoPorts();
+        if (getMemo() == null) {
+            enableMemo(1 << getInputs());
+        }
+        long[] table = new long[1 << getInputs()];
+        for (int key = 0; key < table.length; key++) {
+            table[key] = evaluateDefinition(key);
+        }
+        getMemo().fill(referencedCircuit, table);
+    }
+
+    private void checkMemoPorts() {
+        if (getInputs() > SubcircuitMemo.MAX_INPUTS || getOutputs() > SubcircuitMemo.MAX_OUTPUTS) {
+            throw new IllegalArgumentException("Cannot memoize circuit '" + circuitName + "' with " + getInputs()
+                    + " inputs and " + getOutputs() + " outputs; a memo supports up to "
+                    + SubcircuitMemo.MAX_INPUTS + " inputs and " + SubcircuitMemo.MAX_OUTPUTS + " outputs");
+        }
+    }
+
+    private int packInputs() {
+        int key = 0;
+        for (int i = 0; i < getInputs(); i++) {
+            if (getInputBit(i)) {
+                key |= 1 << i;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Packed outputs of the referenced circuit for packed inputs. The
+     * component's own ports are left as they were.
+     */
+    private long evaluateDefinition(int key) {
+        int saved = packInputs();
+        for (int i = 0; i < getInputs(); i++) {
+            assignInputBit(i, ((key >>> i) & 1) != 0);
+        }
+
+        long outputs;
+        synchronized (referencedCircuit.instanceLock) {
+            outputs = readDefinitionOutputs();
+        }
+
+        for (int i = 0; i < getInputs(); i++) {
+            assignInputBit(i, ((saved >>> i) & 1) != 0);
+        }
+        return outputs;
+    }
+
+    // Caller holds the definition's instance lock
+    private long readDefinitionOutputs() {
+        assignSubCircuitInputs();
+        referencedCircuit.evaluate();
+
+        BoundaryPorts boundary = referencedCircuit.getBoundaryPorts();
+        int count = Math.min(boundary.getOutputCount(), getOutputs());
+        long outputs = 0L;
+        for (int i = 0; i < count; i++) {
+            if (boundary.getOutputGate(i).getOutputBit(boundary.getOutputPort(i))) {
+                outputs |= 1L << i;
+            }
+        }
+        return outputs;
     }
 
     // ===== CIRCUIT INPUT/OUTPUT MAPPING =====
 
     /**
-     * IMPROVED: Set the inputs from this component to the referenced circuit
+     * Set the inputs from this component to the referenced circuit's free
+     * input ports
      */
     private void assignSubCircuitInputs() {
-        List<GateComponent> inputNodes = referencedCircuit.findCircuitInputs();
-        System.out.println("Setting inputs - Found " + inputNodes.size() + " input nodes");
-
-        int globalInputIndex = 0;
-
-        for (GateComponent inputNode : inputNodes) {
-            for (int port = 0; port < inputNode.getInputs(); port++) {
-                // Check if this port is available (not connected internally)
-                Connector connector = inputNode.getInputWire(port);
-                if (connector == null || !referencedCircuit.getGates().contains(connector.getFromGate())) {
-                    if (globalInputIndex < getInputs()) {
-                        Boolean inputValue = getInputVal(globalInputIndex);
-                        System.out.println("Setting input " + globalInputIndex + " to node " +
-                                inputNode.getId() + " port " + port + " = " + inputValue);
-                        inputNode.assignInputDirectly(port, inputValue);
-                        globalInputIndex++;
-                    }
-                }
-            }
+        BoundaryPorts boundary = referencedCircuit.getBoundaryPorts();
+        int count = Math.min(boundary.getInputCount(), getInputs());
+        for (int i = 0; i < count; i++) {
+            GateComponent inputNode = boundary.getInputGate(i);
+            int port = boundary.getInputPort(i);
+            boolean inputValue = getInputBit(i);
+            SimulationTrace.record(SimulationTrace.INPUT, inputNode, port, inputNode.getInputBit(port), inputValue, 0);
+            inputNode.assignInputBit(port, inputValue);
         }
     }
 
     /**
-     * IMPROVED: Get the outputs from the referenced circuit and set them as our
-     * outputs
+     * Get the outputs from the referenced circuit's free output ports and set
+     * them as our outputs
      */
     private void retrieveSubcircuitOutputs() {
-        List<GateComponent> outputNodes = referencedCircuit.findCircuitOutputs();
-        System.out.println("Getting outputs - Found " + outputNodes.size() + " output nodes");
-
-        int globalOutputIndex = 0;
-
-        for (GateComponent outputNode : outputNodes) {
-            for (int port = 0; port < outputNode.getOutputs(); port++) {
-                // Check if this port is available (not connected internally)
-                Connector connector = outputNode.getOutputWire(port);
-                if (connector == null || !referencedCircuit.getGates().contains(connector.getToGate())) {
-                    if (globalOutputIndex < getOutputs()) {
-                        Boolean outputValue = outputNode.getOutputVal(port);
-                        System.out.println("Getting output " + globalOutputIndex + " from node " +
-                                outputNode.getId() + " port " + port + " = " + outputValue);
-                        setOutputVal(globalOutputIndex, outputValue);
-                        globalOutputIndex++;
-                    }
-                }
-            }
+        BoundaryPorts boundary = referencedCircuit.getBoundaryPorts();
+        int count = Math.min(boundary.getOutputCount(), getOutputs());
+        for (int i = 0; i < count; i++) {
+            boolean outputValue = boundary.getOutputGate(i).getOutputBit(boundary.getOutputPort(i));
+            SimulationTrace.record(SimulationTrace.OUTPUT, this, i, getOutputBit(i), outputValue, 0);
+            setOutputVal(i, outputValue);
         }
     }
 
@@ -136,7 +343,6 @@ public class SubcircuitComponent extends GateComponent {
         }
 
         int inputs = circuit.calculateInputCount();
-        System.out.println("Circuit '" + circuit.getName() + "' has " + inputs + " inputs");
         return Math.max(1, inputs);
     }
 
@@ -147,7 +353,6 @@ public class SubcircuitComponent extends GateComponent {
         }
 
         int outputs = circuit.calculateOutputCount();
-        System.out.println("Circuit '" + circuit.getName() + "' has " + outputs + " outputs");
         return Math.max(1, outputs);
     }
 
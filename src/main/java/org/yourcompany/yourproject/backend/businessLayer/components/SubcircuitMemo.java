@@ -0,0 +1,240 @@
+package org.yourcompany.yourproject.backend.businessLayer.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Input-to-output table of one subcircuit definition.
+ *
+ * A {@link SubcircuitComponent} resets and evaluates its circuit on every
+ * call, so its outputs are a pure function of its inputs. This memo maps the
+ * packed input bits to the packed output bits, either lazily with a bounded
+ * LRU or precomputed for every combination. Entries are dropped when the
+ * definition or any circuit nested in it changes structure.
+ *
+ * The LRU lives in primitive arrays: a key-to-slot index over all 2^inputs
+ * keys and a doubly linked list of slots, so lookups do not allocate.
+ */
+public final class SubcircuitMemo {
+
+    public static final int MAX_INPUTS = 16;
+    public static final int MAX_OUTPUTS = 63;
+    /** Returned by {@link #lookup} when the inputs are not cached */
+    public static final long MISS = -1L;
+
+    private final int inputs;
+    private final int outputs;
+    private final int capacity;
+
+    private final int[] slotOfKey;
+    private final int[] slotKey;
+    private final long[] slotValue;
+    private final int[] prev;
+    private final int[] next;
+    private int head = -1; // most recently used
+    private int tail = -1; // least recently used
+    private int size;
+
+    private long[] table; // every combination, once precomputed
+
+    private int version;
+    private final List<Circuit> nested = new ArrayList<>();
+    private int[] nestedVersions = new int[0];
+    private boolean bound;
+
+    private long hits;
+    private long misses;
+
+    public SubcircuitMemo(int inputs, int outputs, int capacity) {
+        if (inputs > MAX_INPUTS || outputs > MAX_OUTPUTS) {
+            throw new IllegalArgumentException("Memo supports up to " + MAX_INPUTS + " inputs and " + MAX_OUTPUTS
+                    + " outputs, not " + inputs + " and " + outputs);
+        }
+        this.inputs = inputs;
+        this.outputs = outputs;
+        this.capacity = Math.max(1, Math.min(capacity, 1 << inputs));
+        this.slotOfKey = new int[1 << inputs];
+        this.slotKey = new int[this.capacity];
+        this.slotValue = new long[this.capacity];
+        this.prev = new int[this.capacity];
+        this.next = new int[this.capacity];
+        Arrays.fill(slotOfKey, -1);
+    }
+
+    // ===== LOOKUP =====
+
+    /**
+     * Cached outputs for packed inputs, or {@link #MISS}. Clears the memo
+     * first if the definition changed since it was filled.
+     */
+    public synchronized long lookup(Circuit definition, int key) {
+        if (!isCurrent(definition)) {
+            rebind(definition);
+        }
+        if (table != null) {
+            hits++;
+            return table[key];
+        }
+        int slot = slotOfKey[key];
+        if (slot < 0) {
+            misses++;
+            return MISS;
+        }
+        hits++;
+        moveToFront(slot);
+        return slotValue[slot];
+    }
+
+    /**
+     * Remember the outputs for packed inputs, evicting the least recently used
+     * entry when full
+     */
+    public synchronized void store(int key, long value) {
+        if (table != null) {
+            return;
+        }
+        int slot = slotOfKey[key];
+        if (slot < 0) {
+            if (size < capacity) {
+                slot = size++;
+            } else {
+                slot = tail;
+                unlink(slot);
+                slotOfKey[slotKey[slot]] = -1;
+            }
+            slotKey[slot] = key;
+            slotOfKey[key] = slot;
+        } else {
+            unlink(slot);
+        }
+        slotValue[slot] = value;
+        linkFront(slot);
+    }
+
+    /**
+     * Replace the LRU by a complete table, indexed by packed inputs
+     */
+    public synchronized void fill(Circuit definition, long[] values) {
+        if (values.length != 1 << inputs) {
+            throw new IllegalArgumentException("Expected " + (1 << inputs) + " entries, got " + values.length);
+        }
+        rebind(definition);
+        table = values.clone();
+    }
+
+    public synchronized void clear() {
+        table = null;
+        Arrays.fill(slotOfKey, -1);
+        head = -1;
+        tail = -1;
+        size = 0;
+    }
+
+    // ===== LRU LIST =====
+
+    private void moveToFront(int slot) {
+        if (slot != head) {
+            unlink(slot);
+            linkFront(slot);
+        }
+    }
+
+    private void unlink(int slot) {
+        if (prev[slot] >= 0) {
+            next[prev[slot]] = next[slot];
+        } else {
+            head = next[slot];
+        }
+        if (next[slot] >= 0) {
+            prev[next[slot]] = prev[slot];
+        } else {
+            tail = prev[slot];
+        }
+    }
+
+    private void linkFront(int slot) {
+        prev[slot] = -1;
+        next[slot] = head;
+        if (head >= 0) {
+            prev[head] = slot;
+        }
+        head = slot;
+        if (tail < 0) {
+            tail = slot;
+        }
+    }
+
+    // ===== INVALIDATION =====
+
+    /**
+     * True while neither the definition nor a circuit nested in it changed.
+     * The definition itself is passed in rather than kept, so the memo does
+     * not keep it alive.
+     */
+    private boolean isCurrent(Circuit definition) {
+        if (!bound || definition.getStructureVersion() != version) {
+            return false;
+        }
+        for (int i = 0; i < nested.size(); i++) {
+            if (nested.get(i).getStructureVersion() != nestedVersions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebind(Circuit definition) {
+        clear();
+        version = definition.getStructureVersion();
+        nested.clear();
+        collectNested(definition, nested);
+        nestedVersions = new int[nested.size()];
+        for (int i = 0; i < nestedVersions.length; i++) {
+            nestedVersions[i] = nested.get(i).getStructureVersion();
+        }
+        bound = true;
+    }
+
+    private static void collectNested(Circuit circuit, List<Circuit> found) {
+        for (GateComponent gate : circuit.getGates()) {
+            if (gate instanceof SubcircuitComponent) {
+                Circuit inner = ((SubcircuitComponent) gate).getReferencedCircuit();
+                if (inner != null && inner != circuit && !found.contains(inner)) {
+                    found.add(inner);
+                    collectNested(inner, found);
+                }
+            }
+        }
+    }
+
+    // ===== STATISTICS =====
+
+    public int getInputs() {
+        return inputs;
+    }
+
+    public int getOutputs() {
+        return outputs;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return table != null ? table.length : size;
+    }
+
+    public synchronized boolean isPrecomputed() {
+        return table != null;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -19,8 +19,7 @@ public class LED extends GateComponent {
     @Override
     public void computeOutput() {
         // LED lights up when input is true
-        Boolean inputVal = getInputVal(0);
-        this.isLit = (inputVal != null && inputVal);
+        this.isLit = getInputBit(0);
         this.ledColor = isLit ? Color.GREEN : Color.RED;
 
         // LED has no outputs to set
@@ -41,9 +41,7 @@ public class andd extends GateComponent {
     protected void calculateOutput() {
 
         // AND logic: output is true only if all inputs are true
-        Boolean input1 = getInputVal(0);
-        Boolean input2 = getInputVal(1);
-        Boolean result = input1 && input2;
+        boolean result = getInputBit(0) && getInputBit(1);
         setOutputVal(0, result);
     }
 
@@ -44,8 +44,7 @@ public class nott extends GateComponent {
     @Override
     protected void calculateOutput() {
         // NOT logic: output is the inverse of the input
-        Boolean input = getInputVal(0);
-        Boolean result = !input;
+        boolean result = !getInputBit(0);
         setOutputVal(0, result);
     }
 
@@ -61,7 +60,7 @@ public class nott extends GateComponent {
 
     @Override
     public void evaluate() {
-        Boolean input = getInputVal(0); // get the value from the input pin
+        boolean input = getInputBit(0); // get the value from the input pin
         setOutputVal(0, !input); // correctly invert it
     }
 
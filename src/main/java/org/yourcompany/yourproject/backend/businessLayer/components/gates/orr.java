@@ -41,9 +41,7 @@ public class orr extends GateComponent {
     @Override
     protected void calculateOutput() {
         // OR logic
-        Boolean input1 = getInputVal(0);
-        Boolean input2 = getInputVal(1);
-        Boolean result = input1 || input2;
+        boolean result = getInputBit(0) || getInputBit(1);
         setOutputVal(0, result); // use ComponentBase method
     }
 
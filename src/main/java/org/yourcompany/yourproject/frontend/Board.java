@@ -22,6 +22,7 @@ import javax.swing.SwingUtilities;
 
 import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
 import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.InputChange;
 import org.yourcompany.yourproject.backend.businessLayer.components.gates.LED;
 import org.yourcompany.yourproject.backend.businessLayer.components.Connector;
 
@@ -377,7 +378,8 @@ private void finishConnectionToGate(DrawGates gateView) {
             if (gate.getOutputWire(i) == null) return i;
             i++;
         }
-        return -1;
+        // Outputs fan out, so a busy port can still drive another wire
+        return gate.getOutputs() > 0 ? 0 : -1;
     }
 
     private int findAvailableInputPort(GateComponent gate) {
@@ -496,10 +498,26 @@ private void finishConnectionToGate(DrawGates gateView) {
 
     public void setGateInput(GateComponent gate, int inputIndex, boolean value) {
         if (gate != null) {
-            gate.setInputVal(inputIndex, value);
-            propagateSignals();
-            canvas.repaint();
+            applyInputChange(gate, inputIndex, value);
+        }
+    }
+
+    /**
+     * Change one gate input, re-evaluate its fan-out cone and repaint only the
+     * views of the nets that changed
+     *
+     * @return false if the change left the circuit oscillating
+     */
+    public boolean applyInputChange(GateComponent gate, int inputIndex, boolean value) {
+        if (currentCircuit == null || gate == null || !currentCircuit.getGates().contains(gate)) {
+            return true;
+        }
+        InputChange changed = currentCircuit.applyInputChange(gate, inputIndex, value);
+        viewService.refreshNetViews(gate, changed.getChangedNets());
+        if (circuitInspector != null) {
+            circuitInspector.onCircuitStateChanged();
         }
+        return changed.isSettled();
     }
 
     public boolean getGateOutput(GateComponent gate, int outputIndex) {
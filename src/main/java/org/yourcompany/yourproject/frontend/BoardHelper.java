@@ -7,11 +7,15 @@ import org.yourcompany.yourproject.backend.businessLayer.components.gates.LED;
 import org.yourcompany.yourproject.frontend.DrawGates;
 import org.yourcompany.yourproject.frontend.DrawWire;
 import org.yourcompany.yourproject.backend.businessLayer.components.Connector;
+import org.yourcompany.yourproject.backend.businessLayer.components.Net;
 
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * View Service for managing the canvas view and visual representation
@@ -595,6 +599,34 @@ public class BoardHelper {
         }
     }
 
+    /**
+     * Repaint only the views touched by an incremental update: the gate whose
+     * input changed, and the drivers, wires and sinks of the changed nets
+     */
+    public void refreshNetViews(GateComponent origin, Set<Net> nets) {
+        Set<GateComponent> gates = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Connector> wires = Collections.newSetFromMap(new IdentityHashMap<>());
+        gates.add(origin);
+        for (Net net : nets) {
+            gates.add(net.getDriver());
+            for (int i = 0; i < net.getSinkCount(); i++) {
+                wires.add(net.getSink(i));
+                gates.add(net.getSink(i).getToGate());
+            }
+        }
+
+        for (DrawGates gateView : gateViews) {
+            if (gates.contains(gateView.getGate())) {
+                gateView.repaint();
+            }
+        }
+        for (DrawWire wireView : wireViews) {
+            if (wires.contains(wireView.getConnector())) {
+                wireView.repaint();
+            }
+        }
+    }
+
     /**
      * NEW: Get gate view by GateComponent
      */
@@ -17,10 +17,8 @@ import java.awt.event.MouseMotionAdapter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import javax.swing.Timer;
 
 import javax.swing.BorderFactory;
@@ -313,11 +311,13 @@ public class CircuitInspector extends JPanel {
         if (controller != null && currentCircuit != null) {
             System.out.println("DEBUG: CircuitInspector - Refreshing entire circuit...");
 
-            // Apply all pending input changes FIRST
-            applyAllInputChanges();
-
-            // Now propagate signals through the circuit
-            controller.propagateSignals();
+            // Pending input changes only re-evaluate their fan-out cones;
+            // without any, recompute the whole circuit
+            if (pendingInputChanges.isEmpty()) {
+                controller.propagateSignals();
+            } else {
+                applyAllInputChanges();
+            }
 
             // SPECIAL: Force all LEDs to update their visual state
             forceLEDUpdates();
@@ -354,97 +354,10 @@ public class CircuitInspector extends JPanel {
      */
 
     /**
-     * Force recomputation of all gates in the circuit
-     */
-    private void forceCircuitRecomputation() {
-        if (currentCircuit == null)
-            return;
-
-        try {
-            // Get all gates and force them to recompute their outputs
-            for (GateComponent gate : currentCircuit.getGates()) {
-                if (gate != null) {
-                    gate.computeOutput();
-                    System.out.println(
-                            "DEBUG: Recomputed gate: " + gate.getName() + " - Output: " + gate.getOutputVal(0));
-                }
-            }
-
-            // If there's a signal propagation method in the circuit, call it
-            if (currentCircuit != null) {
-                // Try to call sigPropogation if it exists
-                try {
-                    currentCircuit.getClass().getMethod("sigPropogation").invoke(currentCircuit);
-                    System.out.println("DEBUG: Called circuit signal propagation");
-                } catch (Exception e) {
-                    System.out.println("DEBUG: Circuit signal propagation not available");
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error during circuit recomputation: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Get topological order for circuit (same as TruthTableGenerator)
+     * Get topological order for circuit (the circuit's cached evaluation order)
      */
     private List<GateComponent> getTopologicalOrder(Circuit circuit) {
-        List<GateComponent> result = new ArrayList<>();
-        Map<GateComponent, Integer> inDegree = new HashMap<>();
-        Queue<GateComponent> queue = new LinkedList<>();
-
-        // Initialize in-degree for each gate
-        for (GateComponent gate : circuit.getGates()) {
-            inDegree.put(gate, 0);
-        }
-
-        // Calculate in-degree (number of incoming connections from within circuit)
-        for (Connector wire : circuit.getWires()) {
-            GateComponent toGate = wire.getToGate();
-            if (circuit.getGates().contains(wire.getFromGate())) {
-                inDegree.put(toGate, inDegree.get(toGate) + 1);
-            }
-        }
-
-        // Add gates with zero in-degree to queue (input nodes)
-        for (GateComponent gate : circuit.getGates()) {
-            if (inDegree.get(gate) == 0) {
-                queue.add(gate);
-            }
-        }
-
-        // Process queue
-        while (!queue.isEmpty()) {
-            GateComponent current = queue.poll();
-            result.add(current);
-
-            // Decrease in-degree of neighbors
-            for (int i = 0; i < current.getOutputs(); i++) {
-                Connector outputConnector = current.getOutputWire(i);
-                if (outputConnector != null) {
-                    GateComponent neighbor = outputConnector.getToGate();
-                    if (circuit.getGates().contains(neighbor)) {
-                        int newDegree = inDegree.get(neighbor) - 1;
-                        inDegree.put(neighbor, newDegree);
-                        if (newDegree == 0) {
-                            queue.add(neighbor);
-                        }
-                    }
-                }
-            }
-        }
-
-        // If not all gates are processed, add remaining gates
-        if (result.size() != circuit.getGates().size()) {
-            for (GateComponent gate : circuit.getGates()) {
-                if (!result.contains(gate)) {
-                    result.add(gate);
-                }
-            }
-        }
-
-        return result;
+        return circuit.computeEvaluationSequence();
     }
 
     /**
@@ -1027,17 +940,14 @@ public class CircuitInspector extends JPanel {
         pendingInputChanges.get(gate).put(inputIndex, value);
     }
 
-    // Apply all stored input changes
+    // Apply all stored input changes, each re-evaluating only its fan-out cone
     private void applyAllInputChanges() {
         for (Map.Entry<GateComponent, Map<Integer, Boolean>> gateEntry : pendingInputChanges.entrySet()) {
             GateComponent gate = gateEntry.getKey();
             Map<Integer, Boolean> changes = gateEntry.getValue();
 
             for (Map.Entry<Integer, Boolean> change : changes.entrySet()) {
-                int inputIndex = change.getKey();
-                boolean value = change.getValue();
-                // Use the normal setInputVal to trigger computation
-                gate.setInputVal(inputIndex, value);
+                controller.applyInputChange(gate, change.getKey(), change.getValue());
             }
         }
         pendingInputChanges.clear();
@@ -1090,12 +1000,9 @@ public class CircuitInspector extends JPanel {
         if (isLEDSelected()) {
             System.out.println("DEBUG: Updating LED state for: " + selectedGate.getName());
 
-            // Apply any pending input changes first
+            // Apply any pending input changes; each updates its own fan-out cone
             applyAllInputChanges();
 
-            // Force the entire circuit to update
-            controller.propagateSignals();
-
             // SPECIAL: Force LED to recompute its state
             if (selectedGate instanceof LED) {
                 LED led = (LED) selectedGate;
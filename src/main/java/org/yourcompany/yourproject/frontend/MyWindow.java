@@ -1779,22 +1779,10 @@ public class MyWindow extends JFrame {
 
             // Remove from circuit
             if (currentCircuit != null) {
-                // Method 1: Remove from wires list
-                if (currentCircuit.getWires() != null) {
-                    boolean removed = currentCircuit.getWires().remove(connector);
-                    System.out.println("Removed from circuit wires: " + removed);
-                }
-
-                // Method 2: Also check if there's a getConnectors() method
-                try {
-                    java.util.List<Connector> connectors = currentCircuit.getConnectors();
-                    if (connectors != null) {
-                        boolean removed = connectors.remove(connector);
-                        System.out.println("Removed from circuit connectors: " + removed);
-                    }
-                } catch (Exception e) {
-                    System.out.println("No getConnectors method: " + e.getMessage());
-                }
+                // The wire lists are read-only views; removal goes through the circuit
+                boolean removed = currentCircuit.getWires().contains(connector);
+                currentCircuit.removeConnectionWire(connector);
+                System.out.println("Removed from circuit wires: " + removed);
             }
 
             // Completely disconnect the connector - UPDATED METHOD NAME
@@ -0,0 +1,132 @@
+package org.yourcompany.yourproject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.BitParallelSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.BytecodeCompiler;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.BytecodeSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.LED;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class BytecodeCompilerTest {
+
+    /**
+     * Random layered circuit of AND, OR and NOT gates with an LED on the last
+     * gate, large enough to need wide local and constant forms
+     */
+    private static Circuit randomCircuit(int gateCount, long seed) {
+        Random random = new Random(seed);
+        Circuit circuit = new Circuit("Random");
+        List<GateComponent> gates = new ArrayList<>();
+        for (int i = 0; i < gateCount; i++) {
+            int kind = random.nextInt(3);
+            GateComponent gate = kind == 0 ? new andd() : kind == 1 ? new orr() : new nott();
+            circuit.addGateFunc(gate);
+            for (int port = 0; port < gate.getInputs(); port++) {
+                // Leave some inputs free so the circuit has external inputs
+                if (!gates.isEmpty() && random.nextInt(4) != 0) {
+                    circuit.gatesConnectorFunc(gates.get(random.nextInt(gates.size())), 0, gate, port);
+                }
+            }
+            gates.add(gate);
+        }
+        LED led = new LED();
+        circuit.addGateFunc(led);
+        circuit.gatesConnectorFunc(gates.get(gates.size() - 1), 0, led, 0);
+        return circuit;
+    }
+
+    @Test
+    void testKernelMatchesBitParallelSimulator() {
+        CompiledCircuit netlist = CompiledCircuit.compile(randomCircuit(400, 42));
+        assertTrue(BytecodeCompiler.isSupported(netlist));
+
+        BitParallelSimulator reference = new BitParallelSimulator(netlist);
+        BytecodeSimulator compiled = new BytecodeSimulator(netlist);
+        Random random = new Random(7);
+        for (int round = 0; round < 4; round++) {
+            for (int input = 0; input < netlist.getInputCount(); input++) {
+                long lanes = random.nextLong();
+                reference.setInputWord(input, lanes);
+                compiled.setInputWord(input, lanes);
+            }
+            reference.evaluate();
+            compiled.evaluate();
+            for (int signal = 0; signal < netlist.getSignalCount(); signal++) {
+                assertEquals(reference.getWord(signal), compiled.getWord(signal), "signal " + signal);
+            }
+        }
+    }
+
+    @Test
+    void testKernelIsCachedPerNetlist() {
+        Circuit circuit = randomCircuit(20, 1);
+        CompiledCircuit netlist = CompiledCircuit.of(circuit);
+        assertSame(BytecodeCompiler.of(netlist), BytecodeCompiler.of(netlist));
+
+        // A structural edit yields a new netlist and so a new kernel class
+        circuit.addGateFunc(new nott());
+        CompiledCircuit edited = CompiledCircuit.of(circuit);
+        assertNotSame(BytecodeCompiler.of(netlist).getClass(), BytecodeCompiler.of(edited).getClass());
+        assertTrue(BytecodeCompiler.of(edited).getClass().isHidden());
+    }
+
+    @Test
+    void testCyclicCircuitIsRejected() {
+        Circuit circuit = new Circuit("Ring");
+        orr enable = new orr();
+        nott inverter = new nott();
+        circuit.addGateFunc(enable);
+        circuit.addGateFunc(inverter);
+        circuit.gatesConnectorFunc(enable, 0, inverter, 0);
+        circuit.gatesConnectorFunc(inverter, 0, enable, 1);
+
+        CompiledCircuit netlist = CompiledCircuit.compile(circuit);
+        assertFalse(BytecodeCompiler.isSupported(netlist));
+        assertThrows(IllegalArgumentException.class, () -> BytecodeCompiler.compile(netlist));
+    }
+
+    @Test
+    void testSizeBoundAgreesWithCompiler() {
+        // A 2000-inverter chain is well inside one method, a 20000-inverter one
+        // is not; both decisions are made without generating code
+        for (int length : new int[] { 2000, 20000 }) {
+            Circuit chain = new Circuit("Chain" + length);
+            nott previous = null;
+            for (int i = 0; i < length; i++) {
+                nott gate = new nott();
+                chain.addGateFunc(gate);
+                if (previous != null) {
+                    chain.gatesConnectorFunc(previous, 0, gate, 0);
+                }
+                previous = gate;
+            }
+            CompiledCircuit netlist = CompiledCircuit.compile(chain);
+
+            if (length == 2000) {
+                assertTrue(BytecodeCompiler.isSupported(netlist));
+                long[] words = new long[netlist.getSignalCount()];
+                words[0] = -1L;
+                BytecodeCompiler.compile(netlist).evaluate(words);
+                assertEquals(-1L, words[netlist.getOutputSignal(netlist.indexOf(previous), 0)]);
+            } else {
+                assertFalse(BytecodeCompiler.isSupported(netlist));
+                assertThrows(IllegalArgumentException.class, () -> BytecodeCompiler.compile(netlist));
+            }
+        }
+    }
+}
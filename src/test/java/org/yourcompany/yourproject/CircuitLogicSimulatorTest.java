@@ -0,0 +1,214 @@
+package org.yourcompany.yourproject;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.BatchSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CircuitLogicSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuitSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.ConvergenceReport;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.NonConvergenceException;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.SimulationControl;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.SimulationSession;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class CircuitLogicSimulatorTest {
+
+    private Circuit circuit;
+    private andd andGate;
+    private orr orGate;
+    private nott notGate;
+
+    @BeforeEach
+    void setUp() {
+        // (A AND B) OR (NOT C), with the OR added first so circuit order is not
+        // evaluation order
+        circuit = new Circuit("SimTest");
+        andGate = new andd();
+        orGate = new orr();
+        notGate = new nott();
+
+        circuit.addGateFunc(orGate);
+        circuit.addGateFunc(andGate);
+        circuit.addGateFunc(notGate);
+
+        circuit.gatesConnectorFunc(andGate, 0, orGate, 0);
+        circuit.gatesConnectorFunc(notGate, 0, orGate, 1);
+    }
+
+    @Test
+    void testCompiledStructure() {
+        CompiledCircuit netlist = CompiledCircuit.compile(circuit);
+
+        assertEquals(3, netlist.getGateCount());
+        assertEquals(3, netlist.getInputCount());
+        assertEquals(2, netlist.getLevelCount());
+        assertFalse(netlist.isCyclic());
+
+        // The OR gate depends on both others, so it must be evaluated last
+        int[] order = netlist.getOrder();
+        assertEquals(orGate, netlist.getGate(order[order.length - 1]));
+    }
+
+    @Test
+    void testRunMatchesInterpretedEngine() {
+        for (int combination = 0; combination < 8; combination++) {
+            Map<String, Boolean> inputs = new HashMap<>();
+            inputs.put(andGate.getName() + "_in0", (combination & 1) != 0);
+            inputs.put(andGate.getName() + "_in1", (combination & 2) != 0);
+            inputs.put(notGate.getName() + "_in0", (combination & 4) != 0);
+
+            Map<String, Boolean> compiled = CircuitLogicSimulator.run(circuit, inputs);
+            Map<String, Boolean> interpreted = CircuitLogicSimulator.runInterpreted(circuit, inputs);
+
+            assertEquals(interpreted, compiled);
+        }
+    }
+
+    @Test
+    void testSessionMatchesRunThroughHandles() {
+        SimulationSession session = CircuitLogicSimulator.session(circuit);
+        int[] inputs = session.inputHandles(List.of(andGate.getName() + "_in0", andGate.getName() + "_in1",
+                notGate.getName() + "_in0"));
+        int[] outputs = { session.outputHandle(orGate.getName()), session.outputHandle(andGate, 0) };
+        boolean[] values = new boolean[outputs.length];
+
+        for (int combination = 0; combination < 8; combination++) {
+            Map<String, Boolean> named = new HashMap<>();
+            named.put(andGate.getName() + "_in0", (combination & 1) != 0);
+            named.put(andGate.getName() + "_in1", (combination & 2) != 0);
+            named.put(notGate.getName() + "_in0", (combination & 4) != 0);
+            Map<String, Boolean> expected = CircuitLogicSimulator.run(circuit, named);
+
+            session.setInputs(inputs, combination);
+            session.evaluate();
+            session.getOutputs(outputs, values);
+            assertEquals(expected.get(orGate.getName()), values[0]);
+            assertEquals(expected.get(andGate.getName()), values[1]);
+            assertEquals((values[0] ? 1L : 0L) | (values[1] ? 2L : 0L), session.getOutputs(outputs));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> session.inputHandle("missing_in0"));
+        assertThrows(IllegalArgumentException.class, () -> session.outputHandle("missing"));
+    }
+
+    @Test
+    void testOpaqueGateDoesNotDriveModel() {
+        // A subcircuit inverter feeding an OR; the compiled netlist keeps the
+        // subcircuit opaque
+        Circuit inverter = new Circuit("Inverter");
+        inverter.addGateFunc(new nott());
+        Circuit top = new Circuit("Top");
+        SubcircuitComponent instance = new SubcircuitComponent(inverter, "Inverter");
+        orr or = new orr();
+        top.addGateFunc(instance);
+        top.addGateFunc(or);
+        top.gatesConnectorFunc(instance, 0, or, 0);
+
+        CompiledCircuit netlist = CompiledCircuit.compile(top);
+        CompiledCircuitSimulator simulator = new CompiledCircuitSimulator(netlist);
+        simulator.evaluate();
+
+        assertTrue(simulator.getOutput(netlist.indexOf(or), 0));
+        // Nothing reached the live OR before a write-back
+        assertFalse(or.getInputVal(0));
+        assertFalse(or.getOutputVal(0));
+    }
+
+    @Test
+    void testRunWritesResultBackToGates() {
+        Map<String, Boolean> inputs = new HashMap<>();
+        inputs.put(andGate.getName() + "_in0", true);
+        inputs.put(andGate.getName() + "_in1", true);
+        inputs.put(notGate.getName() + "_in0", true);
+
+        Map<String, Boolean> outputs = CircuitLogicSimulator.run(circuit, inputs);
+
+        assertTrue(outputs.get(orGate.getName()));
+        assertTrue(orGate.getOutputVal(0));
+        assertTrue(orGate.getInputVal(0));
+        assertFalse(orGate.getInputVal(1));
+    }
+
+    @Test
+    void testBatchMatchesSingleRuns() {
+        List<String> inputNames = Arrays.asList(andGate.getName() + "_in0", andGate.getName() + "_in1",
+                notGate.getName() + "_in0");
+        BatchSimulator batch = CircuitLogicSimulator.batch(circuit, inputNames,
+                Arrays.asList(orGate.getName(), notGate.getName()));
+
+        // 200 vectors: three full blocks of 64 and a partial one
+        int[] next = { 0 };
+        boolean[][] results = new boolean[200][];
+        long count = batch.run(inputs -> {
+            if (next[0] == 200) {
+                return false;
+            }
+            int combination = next[0]++ % 8;
+            for (int i = 0; i < 3; i++) {
+                inputs[i] = ((combination >> i) & 1) != 0;
+            }
+            return true;
+        }, (vector, outputs) -> results[(int) vector] = outputs.clone());
+
+        assertEquals(200, count);
+        for (int vector = 0; vector < 200; vector++) {
+            int combination = vector % 8;
+            Map<String, Boolean> inputs = new HashMap<>();
+            for (int i = 0; i < 3; i++) {
+                inputs.put(inputNames.get(i), ((combination >> i) & 1) != 0);
+            }
+            Map<String, Boolean> expected = CircuitLogicSimulator.run(circuit, inputs);
+            assertEquals(expected.get(orGate.getName()), results[vector][0], "vector " + vector);
+            assertEquals(expected.get(notGate.getName()), results[vector][1], "vector " + vector);
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CircuitLogicSimulator.batch(circuit, Arrays.asList("missing_in0"), Arrays.asList()));
+    }
+
+    @Test
+    void testRingOscillatorIsReported() {
+        // OR feeding a NOT feeding the OR: oscillates while the free OR input is low
+        Circuit ring = new Circuit("Ring");
+        orr enable = new orr();
+        nott inverter = new nott();
+        ring.addGateFunc(enable);
+        ring.addGateFunc(inverter);
+        ring.gatesConnectorFunc(enable, 0, inverter, 0);
+        ring.gatesConnectorFunc(inverter, 0, enable, 1);
+
+        Map<String, Boolean> inputs = new HashMap<>();
+        inputs.put(enable.getName() + "_in0", false);
+        NonConvergenceException error = assertThrows(NonConvergenceException.class,
+                () -> CircuitLogicSimulator.run(ring, inputs, new SimulationControl()));
+        ConvergenceReport report = error.getReport();
+        assertEquals(ConvergenceReport.Status.OSCILLATING, report.getStatus());
+        assertEquals(2, report.getPeriod());
+        assertTrue(report.getOscillatingNets().contains(inverter.getName() + "_out0"));
+        assertTrue(report.getOscillatingNets().contains(enable.getName() + "_out0"));
+
+        // Holding the input high settles the loop
+        inputs.put(enable.getName() + "_in0", true);
+        assertTrue(CircuitLogicSimulator.run(ring, inputs, new SimulationControl()).get(enable.getName()));
+
+        // A cancelled control stops before the first pass
+        SimulationControl cancelled = new SimulationControl();
+        cancelled.cancel();
+        CompiledCircuitSimulator simulator = new CompiledCircuitSimulator(CompiledCircuit.compile(ring));
+        assertEquals(ConvergenceReport.Status.CANCELLED, simulator.evaluate(cancelled).getStatus());
+    }
+}
@@ -1,18 +1,30 @@
 package org.yourcompany.yourproject;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.components.BoundaryPorts;
 import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.CircuitSnapshot;
 import org.yourcompany.yourproject.backend.businessLayer.components.Connector;
 import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.InputChange;
+import org.yourcompany.yourproject.backend.businessLayer.components.Net;
+import org.yourcompany.yourproject.backend.businessLayer.components.PropagationScheduler;
+import org.yourcompany.yourproject.backend.businessLayer.components.StateCheckpoint;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
 import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
 import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
 
 public class CircuitTest {
@@ -110,6 +122,247 @@ public class CircuitTest {
         assertTrue(outputCount >= 1);
     }
 
+    @Test
+    void testBoundaryPortsFollowStructure() {
+        andd gate1 = new andd();
+        nott gate2 = new nott();
+        circuit.addGateFunc(gate1);
+        circuit.addGateFunc(gate2);
+
+        BoundaryPorts boundary = circuit.getBoundaryPorts();
+        assertSame(boundary, circuit.getBoundaryPorts());
+        assertEquals(3, boundary.getInputCount());
+        assertEquals(2, boundary.getOutputCount());
+
+        circuit.gatesConnectorFunc(gate1, 0, gate2, 0);
+        boundary = circuit.getBoundaryPorts();
+        assertEquals(2, boundary.getInputCount());
+        assertSame(gate1, boundary.getInputGate(1));
+        assertEquals(1, boundary.getInputPort(1));
+        assertEquals(1, boundary.getOutputCount());
+        assertSame(gate2, boundary.getOutputGate(0));
+
+        circuit.setInputVal(0, true);
+        circuit.setInputVal(1, true);
+        assertTrue(circuit.getInputVal(1));
+        circuit.evaluate();
+        assertFalse(circuit.getOutputVal(0));
+    }
+
+    @Test
+    void testIndexedLookupAndReadOnlyViews() {
+        andd gate1 = new andd();
+        orr gate2 = new orr();
+        nott gate3 = new nott();
+        circuit.addGateFunc(gate1);
+        circuit.addGateFunc(gate2);
+        circuit.addGateFunc(gate3);
+        circuit.addGateFunc(gate2);
+        Connector wire1 = circuit.gatesConnectorFunc(gate1, 0, gate2, 0);
+        Connector wire2 = circuit.gatesConnectorFunc(gate2, 0, gate3, 0);
+
+        assertEquals(3, circuit.getGates().size());
+        assertSame(gate2, circuit.getGateById(gate2.getId()));
+        assertSame(wire2, circuit.getWireById(wire2.getId()));
+        assertThrows(UnsupportedOperationException.class, () -> circuit.getGates().add(new andd()));
+        assertThrows(UnsupportedOperationException.class, () -> circuit.getWires().remove(wire1));
+
+        circuit.removeGate(gate2);
+        assertEquals(List.of(gate1, gate3), circuit.getGates());
+        assertTrue(circuit.getWires().isEmpty());
+        assertNull(circuit.getGateById(gate2.getId()));
+        assertNull(circuit.getWireById(wire1.getId()));
+        assertNull(gate3.getInputWire(0));
+        assertEquals(1, circuit.getGates().indexOf(gate3));
+    }
+
+    @Test
+    void testInputChangeUpdatesOnlyFanoutCone() {
+        nott not1 = new nott();
+        andd and1 = new andd();
+        nott not2 = new nott();
+        orr or1 = new orr();
+        circuit.addGateFunc(not1);
+        circuit.addGateFunc(and1);
+        circuit.addGateFunc(not2);
+        circuit.addGateFunc(or1);
+        circuit.gatesConnectorFunc(not1, 0, and1, 0);
+        circuit.gatesConnectorFunc(and1, 0, or1, 0);
+        circuit.gatesConnectorFunc(not2, 0, or1, 1);
+        circuit.evaluate();
+        assertTrue(or1.getOutputBit(0));
+
+        InputChange change = circuit.applyInputChange(and1, 1, true);
+        assertTrue(change.isSettled());
+        Set<Net> changed = change.getChangedNets();
+        assertEquals(Set.of(and1.getOutputNet(0)), changed);
+        assertTrue(and1.getOutputBit(0));
+        assertTrue(or1.getInputBit(0));
+
+        changed = circuit.applyInputChange(not2, 0, true).getChangedNets();
+        assertEquals(Set.of(not2.getOutputNet(0)), changed);
+        assertTrue(or1.getOutputBit(0));
+
+        changed = circuit.applyInputChange(not1, 0, true).getChangedNets();
+        assertEquals(List.of(not1.getOutputNet(0), and1.getOutputNet(0), or1.getOutputNet(0)),
+                List.copyOf(changed));
+        assertFalse(or1.getOutputBit(0));
+        assertFalse(or1.getInputBit(0));
+
+        assertThrows(IllegalArgumentException.class, () -> circuit.applyInputChange(new andd(), 0, true));
+    }
+
+    @Test
+    public void testApplyInputChangeReportsOscillation() {
+        Circuit circuit = new Circuit("Ring");
+        orr or1 = new orr();
+        nott not1 = new nott();
+        circuit.addGateFunc(or1);
+        circuit.addGateFunc(not1);
+        circuit.gatesConnectorFunc(or1, 0, not1, 0);
+        circuit.gatesConnectorFunc(not1, 0, or1, 1);
+
+        // Holding the free input high pins the loop
+        assertTrue(circuit.applyInputChange(or1, 0, true).isSettled());
+        assertTrue(or1.getOutputBit(0));
+
+        // Releasing it leaves an odd number of inversions around the loop
+        InputChange change = circuit.applyInputChange(or1, 0, false);
+        assertFalse(change.isSettled());
+        assertTrue(change.getChangedNets().contains(or1.getOutputNet(0)));
+    }
+
+    @Test
+    void testSchedulerPropagatesLongChainIteratively() {
+        int stages = 10_000;
+        nott[] chain = new nott[stages];
+        for (int i = 0; i < stages; i++) {
+            chain[i] = new nott();
+            circuit.addGateFunc(chain[i]);
+            if (i > 0) {
+                circuit.gatesConnectorFunc(chain[i - 1], 0, chain[i], 0);
+            }
+        }
+        circuit.evaluate();
+        assertFalse(chain[stages - 1].getOutputBit(0));
+
+        PropagationScheduler scheduler = new PropagationScheduler();
+        assertTrue(scheduler.execute(() -> chain[0].setInputVal(0, true)));
+        assertTrue(chain[stages - 1].getOutputBit(0));
+        assertEquals(stages, scheduler.getSteps());
+        assertEquals(stages, scheduler.getEvaluations());
+
+        // Stepping by hand advances one stage at a time
+        scheduler.schedule(() -> chain[0].setInputVal(0, false));
+        assertEquals(1, scheduler.getDirtyCount());
+        assertTrue(scheduler.step());
+        assertTrue(chain[1].getInputBit(0));
+        assertTrue(chain[1].getOutputBit(0));
+        assertEquals(1, scheduler.getDirtyCount());
+        assertTrue(scheduler.run());
+        assertFalse(chain[stages - 1].getOutputBit(0));
+    }
+
+    @Test
+    void testSchedulerStopsOnOscillation() {
+        nott ring1 = new nott();
+        nott ring2 = new nott();
+        nott ring3 = new nott();
+        circuit.addGateFunc(ring1);
+        circuit.addGateFunc(ring2);
+        circuit.addGateFunc(ring3);
+        circuit.gatesConnectorFunc(ring1, 0, ring2, 0);
+        circuit.gatesConnectorFunc(ring2, 0, ring3, 0);
+        circuit.gatesConnectorFunc(ring3, 0, ring1, 0);
+
+        PropagationScheduler scheduler = new PropagationScheduler();
+        scheduler.setStepLimit(50);
+        assertFalse(scheduler.execute(() -> ring1.setInputVal(0, true)));
+        assertFalse(scheduler.isSettled());
+        assertEquals(50, scheduler.getSteps());
+
+        // An even ring holds its value, so it settles once every gate was seen
+        nott latch1 = new nott();
+        nott latch2 = new nott();
+        circuit.addGateFunc(latch1);
+        circuit.addGateFunc(latch2);
+        circuit.gatesConnectorFunc(latch1, 0, latch2, 0);
+        circuit.gatesConnectorFunc(latch2, 0, latch1, 0);
+        PropagationScheduler latch = new PropagationScheduler();
+        assertTrue(latch.execute(() -> latch1.setInputVal(0, true)));
+        assertFalse(latch1.getOutputBit(0));
+        assertTrue(latch2.getOutputBit(0));
+    }
+
+    @Test
+    void testSnapshotSharesUnchangedGatesAndIgnoresLaterEdits() {
+        nott not1 = new nott();
+        andd and1 = new andd();
+        orr or1 = new orr();
+        circuit.addGateFunc(not1);
+        circuit.addGateFunc(and1);
+        circuit.addGateFunc(or1);
+        circuit.gatesConnectorFunc(not1, 0, and1, 0);
+
+        CircuitSnapshot first = circuit.snapshot();
+        assertSame(first, circuit.snapshot());
+        assertEquals(3, first.size());
+        assertSame(not1, first.getEntry(1).getDriver(0));
+
+        // Only the gate whose wiring changed gets a new entry
+        circuit.gatesConnectorFunc(and1, 0, or1, 0);
+        CircuitSnapshot second = circuit.snapshot();
+        assertNotSame(first, second);
+        assertSame(first.getEntry(0), second.getEntry(0));
+        assertSame(first.getEntry(1), second.getEntry(1));
+        assertNotSame(first.getEntry(2), second.getEntry(2));
+        assertSame(and1, second.getEntry(2).getDriver(0));
+
+        // Earlier snapshots keep describing the circuit as it was
+        circuit.removeGate(not1);
+        assertEquals(3, second.size());
+        assertNull(first.getEntry(2).getDriver(0));
+        assertEquals(2, circuit.snapshot().size());
+        assertEquals(3, second.getBoundaryPorts().getInputCount());
+        assertFalse(second.isCurrent());
+    }
+
+    @Test
+    void testCheckpointRestoresHierarchyState() {
+        Circuit inner = new Circuit("Inner");
+        nott innerNot = new nott();
+        inner.addGateFunc(innerNot);
+        SubcircuitComponent sub = new SubcircuitComponent(inner, "Inner");
+        andd and1 = new andd();
+        circuit.addGateFunc(and1);
+        circuit.addGateFunc(sub);
+        circuit.gatesConnectorFunc(and1, 0, sub, 0);
+
+        and1.assignInputBit(0, true);
+        and1.assignInputBit(1, true);
+        circuit.evaluate();
+        StateCheckpoint checkpoint = circuit.checkpoint();
+        // AND: 2 inputs + 1 output, subcircuit: 1 + 1, inner NOT: 1 + 1
+        assertEquals(7, checkpoint.getBitCount());
+        assertTrue(and1.getOutputBit(0));
+        assertFalse(sub.getOutputBit(0));
+
+        and1.assignInputBit(1, false);
+        circuit.evaluate();
+        assertFalse(and1.getOutputBit(0));
+        assertTrue(innerNot.getOutputBit(0));
+
+        assertTrue(checkpoint.restore());
+        assertTrue(and1.getInputBit(1));
+        assertTrue(and1.getOutputBit(0));
+        assertTrue(innerNot.getInputBit(0));
+        assertFalse(innerNot.getOutputBit(0));
+
+        // A structural edit anywhere in the hierarchy retires the checkpoint
+        inner.addGateFunc(new nott());
+        assertFalse(checkpoint.restore());
+    }
+
     @Test
     void testCircuitCopy() {
         andd gate = new andd();
@@ -132,4 +385,78 @@ public class CircuitTest {
         assertTrue(circuit.getGates().isEmpty());
         assertTrue(circuit.getWires().isEmpty());
     }
+
+    @Test
+    void testEvaluationOrderFollowsWires() {
+        // Chain first -> middle -> last, added to the circuit in reverse
+        nott first = new nott();
+        nott middle = new nott();
+        andd last = new andd();
+        circuit.addGateFunc(last);
+        circuit.addGateFunc(middle);
+        circuit.addGateFunc(first);
+        circuit.gatesConnectorFunc(first, 0, middle, 0);
+        circuit.gatesConnectorFunc(middle, 0, last, 0);
+
+        List<GateComponent> order = circuit.computeEvaluationSequence();
+
+        assertTrue(order.indexOf(first) < order.indexOf(middle));
+        assertTrue(order.indexOf(middle) < order.indexOf(last));
+
+        // NOT(NOT(false)) AND true = false; NOT(NOT(true)) AND true = true
+        last.assignInputDirectly(1, true);
+        circuit.evaluate();
+        assertFalse(last.getOutputVal(0));
+
+        first.assignInputDirectly(0, true);
+        circuit.evaluate();
+        assertTrue(last.getOutputVal(0));
+    }
+
+    @Test
+    void testEvaluationOrderCachedUntilStructureChanges() {
+        andd gate1 = new andd();
+        orr gate2 = new orr();
+        circuit.addGateFunc(gate1);
+        circuit.addGateFunc(gate2);
+
+        List<GateComponent> order = circuit.computeEvaluationSequence();
+        assertSame(order, circuit.computeEvaluationSequence());
+
+        int version = circuit.getStructureVersion();
+        Connector wire = circuit.gatesConnectorFunc(gate1, 0, gate2, 0);
+        assertNotSame(order, circuit.computeEvaluationSequence());
+        assertTrue(circuit.getStructureVersion() != version);
+
+        order = circuit.computeEvaluationSequence();
+        circuit.removeConnectionWire(wire);
+        assertNotSame(order, circuit.computeEvaluationSequence());
+    }
+
+    @Test
+    void testOutputFansOutToManyInputs() {
+        nott driver = new nott();
+        andd sink1 = new andd();
+        orr sink2 = new orr();
+        circuit.addGateFunc(driver);
+        circuit.addGateFunc(sink1);
+        circuit.addGateFunc(sink2);
+
+        Connector wire1 = circuit.gatesConnectorFunc(driver, 0, sink1, 0);
+        Connector wire2 = circuit.gatesConnectorFunc(driver, 0, sink2, 1);
+
+        assertNotNull(wire1);
+        assertNotNull(wire2);
+        assertEquals(2, driver.getOutputNet(0).getSinkCount());
+
+        // NOT(false) drives both sinks directly
+        driver.setInputVal(0, false);
+        assertTrue(sink1.getInputVal(0));
+        assertTrue(sink2.getInputVal(1));
+
+        // Removing one wire leaves the other on the net
+        circuit.removeConnectionWire(wire1);
+        assertEquals(1, driver.getOutputNet(0).getSinkCount());
+        assertSame(wire2, driver.getOutputWire(0));
+    }
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package org.yourcompany.yourproject;
 
+import java.lang.ref.WeakReference;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
 import org.yourcompany.yourproject.backend.businessLayer.components.Connector;
 import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
 import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
@@ -68,6 +73,52 @@ public class ConnectorTest {
         assertEquals(0, connector.getDestinationPortIndex());
     }
 
+    @Test
+    void testRewiringInvalidatesCompiledCircuit() {
+        Circuit circuit = new Circuit("Rewire");
+        nott other = new nott();
+        circuit.addGateFunc(sourceGate);
+        circuit.addGateFunc(destGate);
+        circuit.addGateFunc(other);
+        circuit.addConnectionWire(connector);
+        CompiledCircuit before = CompiledCircuit.of(circuit);
+        int version = circuit.getStructureVersion();
+
+        connector.setToGate(other);
+
+        assertTrue(circuit.getStructureVersion() != version);
+        assertNull(destGate.getInputWire(0));
+        CompiledCircuit after = CompiledCircuit.of(circuit);
+        assertNotSame(before, after);
+        // The inverter is now driven by the AND gate rather than from outside
+        int otherInput = after.getFaninSignal(after.getFaninStart(after.indexOf(other)));
+        assertEquals(after.getOutputSignal(after.indexOf(sourceGate), 0), otherInput);
+    }
+
+    @Test
+    void testCompiledCircuitDoesNotKeepCircuitAlive() throws InterruptedException {
+        WeakReference<Circuit> circuit = compileAndDrop();
+        for (int i = 0; i < 50 && circuit.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(circuit.get());
+    }
+
+    /**
+     * Compile a wired circuit into the cache and keep only a weak reference
+     */
+    private static WeakReference<Circuit> compileAndDrop() {
+        Circuit circuit = new Circuit("Dropped");
+        andd and = new andd();
+        nott not = new nott();
+        circuit.addGateFunc(and);
+        circuit.addGateFunc(not);
+        circuit.gatesConnectorFunc(and, 0, not, 0);
+        CompiledCircuit.of(circuit);
+        return new WeakReference<>(circuit);
+    }
+
     @Test
     void testSignalValueStorage() {
         sourceGate.setInputVal(0, true);
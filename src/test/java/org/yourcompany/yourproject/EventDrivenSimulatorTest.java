@@ -0,0 +1,90 @@
+package org.yourcompany.yourproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuitSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.EventDrivenSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class EventDrivenSimulatorTest {
+
+    private Circuit circuit;
+    private andd andGate;
+    private orr orGate;
+    private nott notGate;
+    private CompiledCircuit netlist;
+
+    @BeforeEach
+    void setUp() {
+        // (A AND B) OR (NOT C)
+        circuit = new Circuit("EventTest");
+        andGate = new andd();
+        orGate = new orr();
+        notGate = new nott();
+
+        circuit.addGateFunc(andGate);
+        circuit.addGateFunc(orGate);
+        circuit.addGateFunc(notGate);
+
+        circuit.gatesConnectorFunc(andGate, 0, orGate, 0);
+        circuit.gatesConnectorFunc(notGate, 0, orGate, 1);
+
+        netlist = CompiledCircuit.compile(circuit);
+    }
+
+    @Test
+    void testMatchesFullEvaluation() {
+        EventDrivenSimulator events = new EventDrivenSimulator(netlist);
+        CompiledCircuitSimulator full = new CompiledCircuitSimulator(netlist);
+        int orIndex = netlist.indexOf(orGate);
+
+        for (int combination = 0; combination < 8; combination++) {
+            for (int input = 0; input < netlist.getInputCount(); input++) {
+                boolean value = ((combination >> input) & 1) == 1;
+                events.setInput(input, value);
+                full.setInput(input, value);
+            }
+            events.settle();
+            full.evaluate();
+
+            assertEquals(full.getOutput(orIndex, 0), events.getOutput(orIndex, 0));
+        }
+    }
+
+    @Test
+    void testOnlyFanoutIsEvaluated() {
+        EventDrivenSimulator simulator = new EventDrivenSimulator(netlist);
+        assertEquals(3, simulator.settle());
+
+        // Setting an input to its current value raises no event
+        simulator.setInput(0, false);
+        assertFalse(simulator.hasPendingEvents());
+        assertEquals(0, simulator.settle());
+
+        // Toggling an AND input evaluates the AND gate; its output stays false
+        simulator.setInput(0, true);
+        assertTrue(simulator.hasPendingEvents());
+        assertEquals(1, simulator.settle());
+    }
+
+    @Test
+    void testToggleReachesOutput() {
+        EventDrivenSimulator simulator = new EventDrivenSimulator(netlist);
+        int orIndex = netlist.indexOf(orGate);
+        int notInput = netlist.getFaninSignal(netlist.getFaninStart(netlist.indexOf(notGate)));
+
+        simulator.settle();
+        assertTrue(simulator.getOutput(orIndex, 0));
+
+        simulator.setInput(notInput, true);
+        assertEquals(2, simulator.settle());
+        assertFalse(simulator.getOutput(orIndex, 0));
+    }
+}
@@ -0,0 +1,107 @@
+package org.yourcompany.yourproject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.FaultCoverageReport;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.FaultSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class FaultSimulatorTest {
+
+    private Circuit circuit;
+    private andd andGate;
+    private orr orGate;
+    private nott notGate;
+
+    @BeforeEach
+    void setUp() {
+        // (A AND B) OR (NOT C)
+        circuit = new Circuit("FaultTest");
+        andGate = new andd();
+        orGate = new orr();
+        notGate = new nott();
+        circuit.addGateFunc(andGate);
+        circuit.addGateFunc(notGate);
+        circuit.addGateFunc(orGate);
+        circuit.gatesConnectorFunc(andGate, 0, orGate, 0);
+        circuit.gatesConnectorFunc(notGate, 0, orGate, 1);
+    }
+
+    private static List<boolean[]> exhaustive(int inputs) {
+        List<boolean[]> vectors = new ArrayList<>();
+        for (int combination = 0; combination < 1 << inputs; combination++) {
+            boolean[] vector = new boolean[inputs];
+            for (int i = 0; i < inputs; i++) {
+                vector[i] = ((combination >>> i) & 1) != 0;
+            }
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    @Test
+    void testExhaustiveVectorsDetectEveryFault() {
+        FaultSimulator simulator = new FaultSimulator(circuit);
+        // 6 stems (3 inputs, 3 outputs) and 5 pins, both polarities
+        assertEquals(22, simulator.getFaults().size());
+
+        FaultCoverageReport report = simulator.run(exhaustive(3));
+        assertEquals(22, report.getDetectedCount());
+        assertEquals(1.0, report.getCoverage());
+        assertTrue(report.getUndetectedFaults().isEmpty());
+    }
+
+    @Test
+    void testSingleVectorLeavesFaultsUndetected() {
+        FaultSimulator simulator = new FaultSimulator(circuit,
+                List.of(andGate.getName() + "_in0", andGate.getName() + "_in1", notGate.getName() + "_in0"),
+                List.of(orGate.getName()));
+
+        // All low: the OR output is 1 through the NOT, so only faults that
+        // pull it to 0 show
+        FaultCoverageReport report = simulator.run(List.of(new boolean[3]));
+        List<String> undetected = new ArrayList<>();
+        for (FaultSimulator.Fault fault : report.getUndetectedFaults()) {
+            undetected.add(fault.toString());
+        }
+        assertTrue(undetected.contains(orGate.getName() + "_out0 stuck-at-1"));
+        assertFalse(undetected.contains(orGate.getName() + "_out0 stuck-at-0"));
+        assertFalse(undetected.contains(notGate.getName() + "_in0 stuck-at-1"));
+        assertEquals(report.getFaultCount() - undetected.size(), report.getDetectedCount());
+        for (int i = 0; i < report.getFaultCount(); i++) {
+            assertTrue(report.getDetectingVector(i) <= 0);
+        }
+    }
+
+    @Test
+    void testRedundantFaultIsNeverDetected() {
+        // A AND (NOT A) is constant low, so its output stuck at 0 is redundant
+        Circuit redundant = new Circuit("Redundant");
+        nott inverter = new nott();
+        andd and = new andd();
+        redundant.addGateFunc(inverter);
+        redundant.addGateFunc(and);
+        redundant.gatesConnectorFunc(inverter, 0, and, 1);
+
+        FaultSimulator simulator = new FaultSimulator(redundant,
+                List.of(inverter.getName() + "_in0", and.getName() + "_in0"), List.of(and.getName()));
+        List<boolean[]> vectors = List.of(new boolean[] { false, false }, new boolean[] { true, true });
+        FaultCoverageReport report = simulator.run(vectors);
+
+        List<String> undetected = new ArrayList<>();
+        for (FaultSimulator.Fault fault : report.getUndetectedFaults()) {
+            undetected.add(fault.toString());
+        }
+        assertTrue(undetected.contains(and.getName() + "_out0 stuck-at-0"));
+        assertTrue(report.getCoverage() < 1.0);
+    }
+}
@@ -0,0 +1,201 @@
+package org.yourcompany.yourproject;
+
+import java.lang.ref.WeakReference;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.BatchSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CircuitLogicSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.FlattenedCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.TruthTableGen;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.TruthTableGen.TruthTableRow;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class FlattenedCircuitTest {
+
+    private Circuit nand;
+    private Circuit top;
+    private SubcircuitComponent first;
+    private SubcircuitComponent second;
+    private orr output;
+
+    @BeforeEach
+    void setUp() {
+        // NAND built from AND and NOT
+        nand = new Circuit("Nand");
+        andd and = new andd();
+        nott not = new nott();
+        nand.addGateFunc(and);
+        nand.addGateFunc(not);
+        nand.gatesConnectorFunc(and, 0, not, 0);
+
+        // OR(NAND(NAND(a, b), c), d), both NANDs sharing one definition
+        top = new Circuit("Top");
+        first = new SubcircuitComponent(nand, "Nand");
+        second = new SubcircuitComponent(nand, "Nand");
+        first.setName("U1");
+        second.setName("U2");
+        output = new orr();
+        top.addGateFunc(first);
+        top.addGateFunc(second);
+        top.addGateFunc(output);
+        top.gatesConnectorFunc(first, 0, second, 0);
+        top.gatesConnectorFunc(second, 0, output, 0);
+    }
+
+    @Test
+    void testSubcircuitsAreInlined() {
+        FlattenedCircuit flat = FlattenedCircuit.flatten(top);
+        CompiledCircuit netlist = flat.getNetlist();
+
+        // Two AND and NOT pairs plus the OR; no gate is left to the model
+        assertEquals(5, netlist.getGateCount());
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            assertTrue(netlist.getKind(gate) != CompiledCircuit.KIND_OPAQUE);
+        }
+        assertEquals(2, flat.getSubcircuitCount());
+        assertFalse(netlist.isCyclic());
+
+        // Same external inputs as the unflattened netlist
+        CompiledCircuit shallow = CompiledCircuit.compile(top);
+        assertEquals(shallow.getInputCount(), netlist.getInputCount());
+        for (int input = 0; input < netlist.getInputCount(); input++) {
+            assertEquals(shallow.getInputName(input), netlist.getInputName(input));
+        }
+
+        // Inner gates are reported under the instance that contains them
+        int secondNot = netlist.getDriverGate(flat.getOutputSignal(second, 0));
+        assertTrue(flat.getGatePath(secondNot).startsWith("U2/"));
+        assertTrue(flat.getSignalPath(flat.getOutputSignal(second, 0)).endsWith("_out0"));
+    }
+
+    @Test
+    void testRunMatchesHierarchy() {
+        for (int combination = 0; combination < 16; combination++) {
+            boolean a = (combination & 1) != 0;
+            boolean b = (combination & 2) != 0;
+            boolean c = (combination & 4) != 0;
+            boolean d = (combination & 8) != 0;
+            Map<String, Boolean> inputs = new HashMap<>();
+            inputs.put("U1_in0", a);
+            inputs.put("U1_in1", b);
+            inputs.put("U2_in1", c);
+            inputs.put(output.getName() + "_in1", d);
+
+            Map<String, Boolean> outputs = CircuitLogicSimulator.run(top, inputs);
+
+            boolean inner = !(a && b);
+            boolean outer = !(inner && c);
+            assertEquals(inner, outputs.get("U1"), "combination " + combination);
+            assertEquals(outer, outputs.get("U2"), "combination " + combination);
+            assertEquals(outer || d, outputs.get(output.getName()), "combination " + combination);
+            assertEquals(inner, second.getInputVal(0));
+        }
+    }
+
+    @Test
+    void testBatchInlinesSubcircuits() {
+        BatchSimulator batch = CircuitLogicSimulator.batch(top, List.of("U1_in0", "U1_in1", "U2_in1"),
+                List.of("U1", "U2"));
+        // Every input high in all 64 lanes
+        long[] outputs = new long[2];
+        batch.evaluateBlock(new long[] { -1L, -1L, -1L }, outputs);
+
+        assertEquals(0L, outputs[0]);
+        assertEquals(-1L, outputs[1]);
+        // Nothing was driven through the shared definition
+        assertFalse(nand.getGates().get(0).getOutputVal(0));
+        assertFalse(first.getInputVal(0));
+    }
+
+    @Test
+    void testRunKeepsStatePerInstance() {
+        Map<String, Boolean> inputs = new HashMap<>();
+        inputs.put("U1_in0", true);
+        inputs.put("U1_in1", true);
+        inputs.put("U2_in1", true);
+        CircuitLogicSimulator.run(top, inputs);
+
+        // U1 sees (1, 1) and U2 sees (0, 1) through the same definition
+        GateComponent and = nand.getGates().get(0);
+        assertTrue(first.restoreInstanceState());
+        assertTrue(and.getOutputVal(0));
+        assertTrue(and.getInputVal(1));
+        assertTrue(second.restoreInstanceState());
+        assertFalse(and.getOutputVal(0));
+        assertFalse(and.getInputVal(0));
+        assertTrue(nand.getGates().get(1).getOutputVal(0));
+    }
+
+    @Test
+    void testTruthTableIncludesSubcircuitOutputs() {
+        List<TruthTableRow> table = new TruthTableGen().truthTableGenFun(top);
+        assertEquals(16, table.size());
+        for (TruthTableRow row : table) {
+            boolean inner = !(row.getInput("U1_IN0") && row.getInput("U1_IN1"));
+            assertEquals(inner, row.getOutput("U1"));
+            assertEquals(!(inner && row.getInput("U2_IN1")), row.getOutput("U2"));
+        }
+    }
+
+    @Test
+    void testCacheFollowsNestedEdits() {
+        FlattenedCircuit flat = FlattenedCircuit.of(top);
+        assertSame(flat, FlattenedCircuit.of(top));
+
+        nand.addGateFunc(new nott());
+        assertFalse(flat.isCurrent());
+        assertNotSame(flat, FlattenedCircuit.of(top));
+    }
+
+    @Test
+    void testCacheDoesNotKeepCircuitAlive() throws InterruptedException {
+        WeakReference<Circuit> dropped = flattenAndDrop(nand);
+        for (int i = 0; i < 50 && dropped.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(dropped.get());
+    }
+
+    /**
+     * Flatten a circuit using the definition into the cache and keep only a
+     * weak reference to it
+     */
+    private static WeakReference<Circuit> flattenAndDrop(Circuit definition) {
+        Circuit circuit = new Circuit("Dropped");
+        SubcircuitComponent instance = new SubcircuitComponent(definition, "Nand");
+        orr or = new orr();
+        circuit.addGateFunc(instance);
+        circuit.addGateFunc(or);
+        circuit.gatesConnectorFunc(instance, 0, or, 0);
+        FlattenedCircuit.of(circuit);
+        return new WeakReference<>(circuit);
+    }
+
+    @Test
+    void testRecursiveHierarchyIsRejected() {
+        Circuit loop = new Circuit("Loop");
+        loop.addGateFunc(new andd());
+        loop.addGateFunc(new SubcircuitComponent(loop, "Loop"));
+
+        assertThrows(IllegalArgumentException.class, () -> FlattenedCircuit.flatten(loop));
+    }
+}
@@ -1,6 +1,7 @@
 package org.yourcompany.yourproject;
 
 import java.awt.Point;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -107,4 +108,33 @@ public class GateComponentTest {
         assertEquals(andGate.getPosition(), copy.getPosition());
         assertNotEquals(andGate.getId(), copy.getId());
     }
+
+    @Test
+    void testPrimitivePortAccess() {
+        andGate.assignInputBit(0, true);
+        andGate.assignInputBit(1, true);
+
+        assertTrue(andGate.getInputBit(0));
+        assertFalse(andGate.getOutputBit(0));
+
+        andGate.evaluate();
+        assertTrue(andGate.getOutputBit(0));
+
+        // Out-of-range ports read false and ignore writes
+        andGate.assignInputBit(5, true);
+        assertFalse(andGate.getInputBit(5));
+    }
+
+    @Test
+    void testPortValueViews() {
+        List<Boolean> live = andGate.getInputDirectly();
+        live.set(1, true);
+        assertTrue(andGate.getInputBit(1));
+
+        List<Boolean> copy = andGate.getInputVal();
+        andGate.assignInputBit(1, false);
+        assertTrue(copy.get(1));
+        assertFalse(live.get(1));
+        assertEquals(2, live.size());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package org.yourcompany.yourproject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuitSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.ParallelLevelSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class ParallelLevelSimulatorTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testMatchesSequentialEvaluation() {
+        // Three wide levels: NOTs, pairwise ANDs, pairwise ORs
+        Circuit circuit = new Circuit("Wide");
+        List<GateComponent> level = new ArrayList<>();
+        for (int i = 0; i < 4096; i++) {
+            nott gate = new nott();
+            circuit.addGateFunc(gate);
+            level.add(gate);
+        }
+        for (int round = 0; round < 2; round++) {
+            List<GateComponent> next = new ArrayList<>();
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                GateComponent gate = round == 0 ? new andd() : new orr();
+                circuit.addGateFunc(gate);
+                circuit.gatesConnectorFunc(level.get(i), 0, gate, 0);
+                circuit.gatesConnectorFunc(level.get(i + 1), 0, gate, 1);
+                next.add(gate);
+            }
+            level = next;
+        }
+
+        CompiledCircuit netlist = CompiledCircuit.compile(circuit);
+        CompiledCircuitSimulator sequential = new CompiledCircuitSimulator(netlist);
+        ParallelLevelSimulator parallel = new ParallelLevelSimulator(netlist, pool, 256);
+
+        for (int input = 0; input < netlist.getInputCount(); input++) {
+            boolean value = (input * 7 % 3) == 0;
+            sequential.setInput(input, value);
+            parallel.setInput(input, value);
+        }
+        sequential.evaluate();
+        parallel.evaluate();
+
+        for (int signal = 0; signal < netlist.getSignalCount(); signal++) {
+            assertEquals(sequential.getSignal(signal), parallel.getSignal(signal), "signal " + signal);
+        }
+    }
+}
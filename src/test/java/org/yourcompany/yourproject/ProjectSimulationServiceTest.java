@@ -0,0 +1,126 @@
+package org.yourcompany.yourproject;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.ProjectSimulationReport;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.ProjectSimulationService;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.SimulationSession;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.Project;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+
+public class ProjectSimulationServiceTest {
+
+    private ProjectSimulationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProjectSimulationService(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    private static Circuit notChain(String name, int length) {
+        Circuit circuit = new Circuit(name);
+        nott previous = null;
+        for (int i = 0; i < length; i++) {
+            nott gate = new nott();
+            circuit.addGateFunc(gate);
+            if (previous != null) {
+                circuit.gatesConnectorFunc(previous, 0, gate, 0);
+            }
+            previous = gate;
+        }
+        return circuit;
+    }
+
+    @Test
+    void testRunsEveryCircuitAndIsolatesFailures() throws InterruptedException {
+        Project project = new Project("Nightly");
+        Circuit odd = notChain("Odd", 3);
+        Circuit even = notChain("Even", 4);
+        Circuit broken = new Circuit("Broken");
+        broken.addGateFunc(new andd());
+        project.getCircuits().addAll(List.of(odd, even, broken, odd));
+
+        ProjectSimulationReport<Boolean> report = service.simulate(project, (circuit, snapshot) -> {
+            if (circuit == broken) {
+                throw new IllegalStateException("no vectors for " + circuit.getName());
+            }
+            // Output of the last inverter with the chain input held low
+            SimulationSession session = SimulationSession.of(snapshot);
+            session.evaluate();
+            List<GateComponent> gates = circuit.getGates();
+            return session.getOutput(session.outputHandle(gates.get(gates.size() - 1), 0));
+        });
+
+        assertEquals(3, report.getResults().size());
+        assertTrue(report.getResult(odd).getValue());
+        assertFalse(report.getResult(even).getValue());
+        assertFalse(report.isSuccessful());
+        assertEquals(1, report.getFailures().size());
+        assertEquals(broken, report.getFailures().get(0).getCircuit());
+        assertTrue(report.getFailures().get(0).getFailure() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testConcurrencyIsCapped() throws InterruptedException {
+        Project project = new Project("Wide");
+        for (int i = 0; i < 8; i++) {
+            project.getCircuits().add(notChain("C" + i, 1));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        ProjectSimulationReport<Integer> report = service.simulate(project, (circuit, snapshot) -> {
+            int now = running.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return now;
+        });
+
+        assertTrue(report.isSuccessful());
+        assertEquals(8, report.getResults().size());
+        assertTrue(peak.get() <= service.getMaxConcurrency());
+        assertTrue(report.getTotalCircuitNanos() > report.getElapsedNanos());
+    }
+
+    @Test
+    void testWorkloadsGetSnapshotsOfSharedDefinitions() throws InterruptedException {
+        // Two circuits wrapping one shared inverter definition
+        Circuit inverter = notChain("Inverter", 1);
+        Project project = new Project("Shared");
+        for (int i = 0; i < 2; i++) {
+            Circuit wrapper = new Circuit("Wrapper" + i);
+            wrapper.addGateFunc(new SubcircuitComponent(inverter, "Inverter"));
+            project.getCircuits().add(wrapper);
+        }
+
+        ProjectSimulationReport<Boolean> report = service.simulate(project, (circuit, snapshot) -> {
+            assertSame(circuit, snapshot.getSource());
+            SimulationSession session = SimulationSession.of(snapshot);
+            session.evaluate();
+            return session.getOutput(session.outputHandle(snapshot.getEntry(0).getGate(), 0));
+        });
+
+        assertTrue(report.isSuccessful());
+        for (Circuit circuit : project.getCircuits()) {
+            assertTrue(report.getResult(circuit).getValue());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.yourcompany.yourproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.SimulationTrace;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+
+public class SimulationTraceTest {
+
+    @AfterEach
+    void tearDown() {
+        SimulationTrace.disable();
+    }
+
+    @Test
+    void testDisabledTraceRecordsNothing() {
+        SimulationTrace.record(SimulationTrace.SIGNAL, new andd(), 0, false, true, 1);
+
+        assertFalse(SimulationTrace.isEnabled());
+        assertEquals(0, SimulationTrace.getRecordedCount());
+        assertTrue(SimulationTrace.snapshot().isEmpty());
+    }
+
+    @Test
+    void testRingBufferKeepsNewestEvents() {
+        andd gate = new andd();
+        SimulationTrace.enable(4);
+        for (int i = 0; i < 10; i++) {
+            SimulationTrace.record(SimulationTrace.SIGNAL, gate, i, i % 2 == 0, i % 2 == 1, 100 + i);
+        }
+
+        List<SimulationTrace.Event> events = SimulationTrace.snapshot();
+        assertEquals(10, SimulationTrace.getRecordedCount());
+        assertEquals(4, events.size());
+        SimulationTrace.Event oldest = events.get(0);
+        assertEquals(SimulationTrace.SIGNAL, oldest.getKind());
+        assertEquals(gate.getTraceId(), oldest.getGateId());
+        assertEquals(6, oldest.getPort());
+        assertTrue(oldest.getOldValue());
+        assertFalse(oldest.getNewValue());
+        assertEquals(106, oldest.getIteration());
+        assertEquals(109, events.get(3).getIteration());
+    }
+
+    @Test
+    void testSubcircuitEvaluationIsTraced() {
+        Circuit inner = new Circuit("Inner");
+        andd gate = new andd();
+        inner.addGateFunc(gate);
+        SubcircuitComponent subcircuit = new SubcircuitComponent(inner, "Sub");
+        Circuit top = new Circuit("Top");
+        top.addGateFunc(subcircuit);
+
+        SimulationTrace.enable();
+        subcircuit.assignInputBit(0, true);
+        subcircuit.assignInputBit(1, true);
+        subcircuit.evaluate();
+
+        List<SimulationTrace.Event> events = SimulationTrace.snapshot();
+        assertEquals(SimulationTrace.EVALUATE, events.get(0).getKind());
+        assertEquals(SimulationTrace.INPUT, events.get(1).getKind());
+        assertEquals(gate.getTraceId(), events.get(1).getGateId());
+        SimulationTrace.Event output = events.get(events.size() - 1);
+        assertEquals(SimulationTrace.OUTPUT, output.getKind());
+        assertTrue(output.getNewValue());
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        SimulationTrace.dump(new PrintStream(text), top);
+        assertTrue(text.toString().contains("INPUT " + subcircuit.getName() + "/" + gate.getName() + " port 0"));
+    }
+}
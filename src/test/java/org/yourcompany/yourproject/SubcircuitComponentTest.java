@@ -1,14 +1,20 @@
 package org.yourcompany.yourproject;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
 import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitMemo;
 import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
 
 public class SubcircuitComponentTest {
 
@@ -49,8 +55,29 @@ public class SubcircuitComponentTest {
         SubcircuitComponent copy = (SubcircuitComponent) subcircuit.copy();
 
         assertNotNull(copy);
+        assertNotSame(subcircuit, copy);
         assertEquals(subcircuit.getCircuitName(), copy.getCircuitName());
-        assertNotSame(subcircuit.getReferencedCircuit(), copy.getReferencedCircuit());
+        assertSame(subcircuit.getReferencedCircuit(), copy.getReferencedCircuit());
+    }
+
+    @Test
+    void testCopiesKeepTheirOwnState() {
+        SubcircuitComponent copy = (SubcircuitComponent) subcircuit.copy();
+        andd innerGate = (andd) innerCircuit.getGates().get(0);
+
+        evaluateWith(subcircuit, true, true);
+        evaluateWith(copy, true, false);
+        assertTrue(subcircuit.getOutputBit(0));
+        assertFalse(copy.getOutputBit(0));
+        assertFalse(innerGate.getOutputBit(0));
+
+        assertTrue(subcircuit.restoreInstanceState());
+        assertTrue(innerGate.getOutputBit(0));
+        assertTrue(copy.restoreInstanceState());
+        assertFalse(innerGate.getOutputBit(0));
+
+        innerCircuit.addGateFunc(new nott());
+        assertFalse(copy.restoreInstanceState());
     }
 
     @Test
@@ -61,4 +88,102 @@ public class SubcircuitComponentTest {
         assertNotNull(emptySubcircuit);
         emptySubcircuit.evaluate(); // Should not throw exception
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMemoHitsAndMisses() {
+        subcircuit.enableMemo(4);
+        SubcircuitMemo memo = subcircuit.getMemo();
+
+        evaluateWith(subcircuit, true, true);
+        assertTrue(subcircuit.getOutputBit(0));
+        evaluateWith(subcircuit, true, false);
+        assertFalse(subcircuit.getOutputBit(0));
+        evaluateWith(subcircuit, true, true);
+        assertTrue(subcircuit.getOutputBit(0));
+
+        assertEquals(2, memo.getMisses());
+        assertEquals(1, memo.getHits());
+        assertEquals(2, memo.size());
+    }
+
+    @Test
+    void testMemoEvictsLeastRecentlyUsed() {
+        subcircuit.enableMemo(2);
+        SubcircuitMemo memo = subcircuit.getMemo();
+
+        evaluateWith(subcircuit, false, false);
+        evaluateWith(subcircuit, true, false);
+        evaluateWith(subcircuit, false, false); // refresh 00
+        evaluateWith(subcircuit, true, true); // evicts 10
+        assertEquals(2, memo.size());
+
+        long misses = memo.getMisses();
+        evaluateWith(subcircuit, false, false);
+        assertEquals(misses, memo.getMisses());
+        evaluateWith(subcircuit, true, false);
+        assertEquals(misses + 1, memo.getMisses());
+        assertFalse(subcircuit.getOutputBit(0));
+    }
+
+    @Test
+    void testPrecomputedMemoIsSharedByInstances() {
+        SubcircuitComponent second = new SubcircuitComponent(innerCircuit, "Subcircuit2");
+        subcircuit.precomputeMemo();
+        SubcircuitMemo memo = subcircuit.getMemo();
+
+        assertTrue(memo.isPrecomputed());
+        assertEquals(4, memo.size());
+        assertEquals(memo, second.getMemo());
+
+        evaluateWith(second, true, true);
+        assertTrue(second.getOutputBit(0));
+        evaluateWith(second, false, true);
+        assertFalse(second.getOutputBit(0));
+        assertEquals(0, memo.getMisses());
+    }
+
+    @Test
+    void testMemoIsDroppedWhenDefinitionChanges() {
+        subcircuit.precomputeMemo();
+        SubcircuitMemo memo = subcircuit.getMemo();
+
+        innerCircuit.addGateFunc(new nott());
+        evaluateWith(subcircuit, true, true);
+
+        assertFalse(memo.isPrecomputed());
+        assertEquals(1, memo.getMisses());
+
+        subcircuit.disableMemo();
+        assertEquals(null, subcircuit.getMemo());
+    }
+
+    @Test
+    void testMemoCapacityIsClampedOnce() {
+        subcircuit.enableMemo(100);
+        SubcircuitMemo memo = subcircuit.getMemo();
+        assertEquals(4, memo.getCapacity());
+
+        subcircuit.enableMemo(100);
+        assertSame(memo, subcircuit.getMemo());
+    }
+
+    @Test
+    void testPrecomputeRejectsWideDefinitions() {
+        Circuit wide = new Circuit("Wide");
+        for (int i = 0; i < 9; i++) {
+            wide.addGateFunc(new andd());
+        }
+        SubcircuitComponent component = new SubcircuitComponent(wide, "WideSub");
+        assertTrue(component.getInputs() > SubcircuitMemo.MAX_INPUTS);
+
+        assertThrows(IllegalArgumentException.class, component::precomputeMemo);
+        assertThrows(IllegalArgumentException.class, () -> component.enableMemo(8));
+        assertNull(component.getMemo());
+    }
+
+    private static void evaluateWith(SubcircuitComponent component, boolean a, boolean b) {
+        component.assignInputBit(0, a);
+        component.assignInputBit(1, b);
+        component.evaluate();
+    }
+}
@@ -0,0 +1,122 @@
+package org.yourcompany.yourproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.TimingSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.TimingSimulator.TimingResult;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class TimingSimulatorTest {
+
+    @Test
+    void testStaticHazardIsFlagged() {
+        // A AND NOT A: the NOT path is one tick slower, so a rising A pulses the
+        // output high for one tick
+        Circuit circuit = new Circuit("Hazard");
+        orr source = new orr();
+        nott inverter = new nott();
+        andd output = new andd();
+        circuit.addGateFunc(source);
+        circuit.addGateFunc(inverter);
+        circuit.addGateFunc(output);
+        circuit.gatesConnectorFunc(source, 0, inverter, 0);
+        circuit.gatesConnectorFunc(source, 0, output, 0);
+        circuit.gatesConnectorFunc(inverter, 0, output, 1);
+
+        CompiledCircuit netlist = CompiledCircuit.compile(circuit);
+        TimingSimulator simulator = new TimingSimulator(netlist);
+        int outputGate = netlist.indexOf(output);
+        simulator.watchOutput(outputGate, 0);
+
+        simulator.setInput(0, true);
+        TimingResult result = simulator.run();
+
+        assertTrue(result.isSettled());
+        // OR at t=2, NOT at t=3, AND rises at t=4 and falls at t=5
+        assertEquals(5, result.getSettleTime());
+        assertTrue(result.hasGlitches());
+        assertEquals(2, result.getTransitions(netlist.getOutputSignal(outputGate, 0)));
+        assertFalse(simulator.getOutput(outputGate, 0));
+    }
+
+    @Test
+    void testCleanTransitionHasNoGlitch() {
+        Circuit circuit = new Circuit("Chain");
+        nott first = new nott();
+        nott second = new nott();
+        circuit.addGateFunc(first);
+        circuit.addGateFunc(second);
+        circuit.gatesConnectorFunc(first, 0, second, 0);
+
+        CompiledCircuit netlist = CompiledCircuit.compile(circuit);
+        TimingSimulator simulator = new TimingSimulator(netlist);
+        int secondGate = netlist.indexOf(second);
+        simulator.watchOutput(secondGate, 0);
+
+        simulator.setInput(0, true);
+        TimingResult result = simulator.run();
+
+        assertEquals(2, result.getSettleTime());
+        assertFalse(result.hasGlitches());
+        assertTrue(simulator.getOutput(secondGate, 0));
+    }
+
+    @Test
+    void testRingOscillatorHitsTimeLimit() {
+        Circuit circuit = new Circuit("Ring");
+        orr enable = new orr();
+        nott inverter = new nott();
+        circuit.addGateFunc(enable);
+        circuit.addGateFunc(inverter);
+        circuit.gatesConnectorFunc(enable, 0, inverter, 0);
+        circuit.gatesConnectorFunc(inverter, 0, enable, 1);
+
+        TimingSimulator simulator = new TimingSimulator(CompiledCircuit.compile(circuit));
+        simulator.setTimeLimit(100);
+
+        // Holding the OR input high breaks the loop
+        simulator.setInput(0, true);
+        assertTrue(simulator.run().isSettled());
+
+        // Releasing it lets the loop oscillate until the limit
+        simulator.setInput(0, false);
+        TimingResult result = simulator.run();
+        assertFalse(result.isSettled());
+        assertTrue(result.getEventCount() > 30);
+
+        assertThrows(IllegalArgumentException.class, () -> simulator.setDelay(CompiledCircuit.KIND_NOT, 0));
+    }
+
+    @Test
+    void testOpaqueGateDoesNotDriveModel() {
+        Circuit inverter = new Circuit("Inverter");
+        inverter.addGateFunc(new nott());
+        Circuit circuit = new Circuit("Top");
+        SubcircuitComponent instance = new SubcircuitComponent(inverter, "Inverter");
+        orr or = new orr();
+        circuit.addGateFunc(instance);
+        circuit.addGateFunc(or);
+        circuit.gatesConnectorFunc(instance, 0, or, 0);
+
+        CompiledCircuit netlist = CompiledCircuit.compile(circuit);
+        TimingSimulator simulator = new TimingSimulator(netlist);
+        int input = netlist.getInputGate(0) == instance ? 0 : 1;
+        // Pulse the subcircuit input so the event loop evaluates it twice
+        simulator.setInput(input, true);
+        simulator.run();
+        simulator.setInput(input, false);
+        TimingResult result = simulator.run();
+
+        assertTrue(result.isSettled());
+        assertTrue(simulator.getOutput(netlist.indexOf(or), 0));
+        assertFalse(or.getInputVal(0));
+    }
+}
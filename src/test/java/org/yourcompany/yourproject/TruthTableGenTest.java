@@ -0,0 +1,127 @@
+package org.yourcompany.yourproject;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.BitParallelSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuit;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CompiledCircuitSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.TruthTableGen;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.TruthTableGen.TruthTableRow;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.GateComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.SubcircuitComponent;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class TruthTableGenTest {
+
+    private Circuit circuit;
+
+    @BeforeEach
+    void setUp() {
+        // NOT((A.B + C.D) . (E.F + G)) : seven inputs, so the table spans two
+        // 64-row blocks
+        circuit = new Circuit("TableTest");
+        andd ab = new andd();
+        andd cd = new andd();
+        andd ef = new andd();
+        orr left = new orr();
+        orr right = new orr();
+        andd top = new andd();
+        nott out = new nott();
+
+        circuit.addGateFunc(ab);
+        circuit.addGateFunc(cd);
+        circuit.addGateFunc(ef);
+        circuit.addGateFunc(left);
+        circuit.addGateFunc(right);
+        circuit.addGateFunc(top);
+        circuit.addGateFunc(out);
+
+        circuit.gatesConnectorFunc(ab, 0, left, 0);
+        circuit.gatesConnectorFunc(cd, 0, left, 1);
+        circuit.gatesConnectorFunc(ef, 0, right, 0);
+        circuit.gatesConnectorFunc(left, 0, top, 0);
+        circuit.gatesConnectorFunc(right, 0, top, 1);
+        circuit.gatesConnectorFunc(top, 0, out, 0);
+    }
+
+    @Test
+    void testRowCount() {
+        List<TruthTableRow> table = new TruthTableGen().truthTableGenFun(circuit);
+
+        assertEquals(128, table.size());
+        assertEquals(7, table.get(0).getInputs().size());
+        assertEquals(7, table.get(0).getOutputs().size());
+    }
+
+    @Test
+    void testMatchesScalarSimulation() {
+        List<TruthTableRow> table = new TruthTableGen().truthTableGenFun(circuit);
+        CompiledCircuit netlist = CompiledCircuit.compile(circuit);
+        CompiledCircuitSimulator simulator = new CompiledCircuitSimulator(netlist);
+
+        for (int row = 0; row < table.size(); row++) {
+            for (int input = 0; input < netlist.getInputCount(); input++) {
+                simulator.setInput(input, ((row >> input) & 1) == 1);
+            }
+            simulator.evaluate();
+
+            for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+                GateComponent component = netlist.getGate(gate);
+                assertEquals(simulator.getOutput(gate, 0), table.get(row).getOutput(component.getName()),
+                        "row " + row + " gate " + component.getName());
+            }
+        }
+    }
+
+    @Test
+    void testInputColumns() {
+        List<TruthTableRow> table = new TruthTableGen().truthTableGenFun(circuit);
+        TruthTableRow last = table.get(table.size() - 1);
+
+        for (boolean value : last.getInputs().values()) {
+            assertTrue(value);
+        }
+    }
+
+    @Test
+    void testRejectsTooManyInputs() {
+        // 16 unconnected AND gates: 32 inputs, where 1 << 32 would wrap to 1
+        Circuit wide = new Circuit("Wide");
+        for (int i = 0; i < 16; i++) {
+            wide.addGateFunc(new andd());
+        }
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new TruthTableGen().truthTableGenFun(wide));
+        assertTrue(error.getMessage().contains("32 inputs"));
+    }
+
+    @Test
+    void testOpaqueLanesDoNotDriveModel() {
+        // A subcircuit inverter feeding an OR, left opaque by the netlist
+        Circuit inverter = new Circuit("Inverter");
+        inverter.addGateFunc(new nott());
+        Circuit top = new Circuit("Top");
+        SubcircuitComponent instance = new SubcircuitComponent(inverter, "Inverter");
+        orr or = new orr();
+        top.addGateFunc(instance);
+        top.addGateFunc(or);
+        top.gatesConnectorFunc(instance, 0, or, 0);
+
+        CompiledCircuit netlist = CompiledCircuit.compile(top);
+        BitParallelSimulator simulator = new BitParallelSimulator(netlist);
+        simulator.evaluate();
+
+        assertEquals(-1L, simulator.getOutputWord(netlist.indexOf(or), 0));
+        assertFalse(or.getInputVal(0));
+    }
+}
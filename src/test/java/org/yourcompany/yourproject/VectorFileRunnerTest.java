@@ -0,0 +1,70 @@
+package org.yourcompany.yourproject;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.CircuitLogicSimulator;
+import org.yourcompany.yourproject.backend.businessLayer.analysis.VectorFileRunner;
+import org.yourcompany.yourproject.backend.businessLayer.components.Circuit;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.andd;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.nott;
+import org.yourcompany.yourproject.backend.businessLayer.components.gates.orr;
+
+public class VectorFileRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRunsVectorFileThroughCircuit() throws IOException {
+        // (A AND B) OR (NOT C)
+        Circuit circuit = new Circuit("Vectors");
+        andd andGate = new andd();
+        orr orGate = new orr();
+        nott notGate = new nott();
+        circuit.addGateFunc(andGate);
+        circuit.addGateFunc(orGate);
+        circuit.addGateFunc(notGate);
+        circuit.gatesConnectorFunc(andGate, 0, orGate, 0);
+        circuit.gatesConnectorFunc(notGate, 0, orGate, 1);
+
+        List<String> inputNames = Arrays.asList(notGate.getName() + "_in0", andGate.getName() + "_in0",
+                andGate.getName() + "_in1");
+        List<String> outputNames = Arrays.asList(orGate.getName(), andGate.getName());
+        Path vectors = tempDir.resolve("vectors.bin");
+        Path results = tempDir.resolve("results.bin");
+
+        // 1000 rows, so the last block of 64 is partial
+        long[] next = { 0 };
+        VectorFileRunner.writeVectors(vectors, inputNames, 1000, row -> {
+            long combination = next[0]++ * 5 % 8;
+            for (int i = 0; i < row.length; i++) {
+                row[i] = ((combination >> i) & 1) != 0;
+            }
+            return true;
+        });
+        assertEquals(inputNames, VectorFileRunner.readColumnNames(vectors));
+
+        assertEquals(1000, VectorFileRunner.run(circuit, vectors, results, outputNames));
+        assertEquals(outputNames, VectorFileRunner.readColumnNames(results));
+
+        long rows = VectorFileRunner.readResults(results, (row, outputs) -> {
+            long combination = row * 5 % 8;
+            Map<String, Boolean> inputs = new HashMap<>();
+            for (int i = 0; i < inputNames.size(); i++) {
+                inputs.put(inputNames.get(i), ((combination >> i) & 1) != 0);
+            }
+            Map<String, Boolean> expected = CircuitLogicSimulator.run(circuit, inputs);
+            assertEquals(expected.get(orGate.getName()), outputs[0], "row " + row);
+            assertEquals(expected.get(andGate.getName()), outputs[1], "row " + row);
+        });
+        assertEquals(1000, rows);
+    }
+}